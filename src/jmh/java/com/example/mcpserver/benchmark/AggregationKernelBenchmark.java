@@ -0,0 +1,78 @@
+package com.example.mcpserver.benchmark;
+
+import com.example.mcpserver.store.Aggregate;
+import com.example.mcpserver.store.SmireColumnStore.Dimension;
+import com.example.mcpserver.store.SmirePartitionedStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membandingkan kernel agregasi SIMD dan skalar pada jalur scan get_summary_analytics dan get_product_mix
+ * (filter merchant_name membuat query tidak bisa dijawab rollup cube sehingga bitmap hasil filter diagregasi kernel).
+ * Setiap nilai {@code kernel} berjalan di fork JVM sendiri karena kernel dipilih sekali saat class store dimuat.
+ *
+ * <pre>
+ * mvn -P benchmark compile exec:exec -Djmh.args="AggregationKernelBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class AggregationKernelBenchmark {
+
+    private static final String MONTH = "Oct-24";
+    private static final String[] PRODUCT_TYPES = {"WaaS", "Sub Account", "PayChat"};
+
+    @Param({"simd", "scalar"})
+    public String kernel;
+
+    @Param({"1000000"})
+    public int rows;
+
+    // Sedikit merchant = bitmap filter padat, banyak merchant = bitmap jarang
+    @Param({"4", "1000"})
+    public int merchants;
+
+    private SmirePartitionedStore store;
+
+    @Setup
+    public void setUp() {
+        // Harus diset sebelum class store pertama kali dimuat
+        System.setProperty("smire.simd.enabled", Boolean.toString("simd".equals(kernel)));
+
+        SplittableRandom random = new SplittableRandom(42);
+        SmirePartitionedStore.Builder builder = SmirePartitionedStore.builder();
+        for (int i = 0; i < rows; i++) {
+            builder.addRow(MONTH, "Wallets_Billing", PRODUCT_TYPES[random.nextInt(PRODUCT_TYPES.length)],
+                    "BRN-" + random.nextInt(500), "merchant-" + random.nextInt(merchants),
+                    random.nextLong(1_000_000_000L), random.nextLong(1_000));
+        }
+        store = builder.build();
+    }
+
+    @Benchmark
+    public Aggregate summaryAnalytics() {
+        return store.summarize(MONTH, null, null, null, "merchant-1");
+    }
+
+    @Benchmark
+    public Map<String, Aggregate> productMix() {
+        return store.summarizeBy(Dimension.PRODUCT_TYPE, MONTH, null, null, null, "merchant-1");
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.mcpserver.benchmark;
+
+import com.example.mcpserver.service.SmireDataService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Dataset untuk benchmark: {@code bundled} = data_smire_final.json bawaan, atau jumlah baris (mis. {@code 1000000})
+ * untuk dataset sintetis dari {@link SmireDataGenerator}. File sintetis disimpan di
+ * {@code ${java.io.tmpdir}/smire-bench} dan dipakai ulang antar fork/run karena generator deterministik.
+ */
+final class BenchmarkDatasets {
+
+    static final String BUNDLED = "bundled";
+    static final long SEED = 42L;
+
+    private static final String BUNDLED_LOCATION = "classpath:data/data_smire_final.json";
+
+    private BenchmarkDatasets() {
+    }
+
+    // Lokasi data (format smire.data.location) untuk nilai @Param dataset
+    static String location(String dataset) {
+        if (BUNDLED.equals(dataset)) {
+            return BUNDLED_LOCATION;
+        }
+        long rows = Long.parseLong(dataset);
+        Path dir = Path.of(System.getProperty("java.io.tmpdir"), "smire-bench");
+        Path file = dir.resolve("synthetic-" + rows + "-" + SEED + "-v" + SmireDataGenerator.VERSION + ".ndjson");
+        try {
+            if (!Files.exists(file)) {
+                Files.createDirectories(dir);
+                Path partial = dir.resolve(file.getFileName() + ".tmp");
+                SmireDataGenerator.builder()
+                        .seed(SEED)
+                        .merchants(SmireDataGenerator.defaultMerchants(rows))
+                        .build()
+                        .writeNdjson(partial, rows);
+                Files.move(partial, file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Gagal membuat dataset sintetis " + file, e);
+        }
+        return file.toUri().toString();
+    }
+
+    /**
+     * Membuat SmireDataService di luar Spring: tanpa watcher, delta, cache, dan scan paralel
+     * (agar tidak ada thread pool yang tertinggal saat service dibuat berulang kali).
+     * Dengan {@code snapshotPath} tidak null, snapshot biner ditulis / dibaca di path tersebut.
+     */
+    static SmireDataService dataService(String location, Path snapshotPath) {
+        return new SmireDataService(new DefaultResourceLoader(), new ObjectMapper(), event -> {
+        }, location, snapshotPath != null, snapshotPath != null ? snapshotPath.toString() : "", false, 0, 1,
+                Integer.MAX_VALUE, false, 0L, "");
+    }
+}
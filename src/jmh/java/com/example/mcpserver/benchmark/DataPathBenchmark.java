@@ -0,0 +1,148 @@
+package com.example.mcpserver.benchmark;
+
+import com.example.mcpserver.service.SmireDataService;
+import com.example.mcpserver.store.Aggregate;
+import com.example.mcpserver.store.FixedPoint;
+import com.example.mcpserver.store.SmireColumnStore;
+import com.example.mcpserver.store.SmireColumnStore.Dimension;
+import com.example.mcpserver.store.SmirePartitionedStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark jalur data di bawah tools, dengan nama langkah dari implementasi awal:
+ * <ul>
+ *     <li>{@code loadSmireData}: membuat SmireDataService (parse JSON/NDJSON ke partisi, atau buka snapshot biner)</li>
+ *     <li>{@code filterData}: filter + agregasi di store (bitmap index dan scan, bukan lagi List&lt;Map&gt;)</li>
+ *     <li>{@code cleanAndParseNumber}: parse angka tpv/tpt ke fixed-point (FixedPoint.parse), termasuk nilai kotor</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -P benchmark compile exec:exec -Djmh.args="DataPathBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx8g"})
+public class DataPathBenchmark {
+
+    private static final String MONTH = "Oct-24";
+
+    /**
+     * State loadSmireData: {@code source} json = selalu parse data sumber, snapshot = buka snapshot biner
+     * yang ditulis sekali saat setup.
+     */
+    @State(Scope.Benchmark)
+    public static class LoadState {
+        @Param({BenchmarkDatasets.BUNDLED, "100000", "1000000"})
+        public String dataset;
+
+        @Param({"json", "snapshot"})
+        public String source;
+
+        String location;
+        Path snapshotPath;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            location = BenchmarkDatasets.location(dataset);
+            if ("snapshot".equals(source)) {
+                snapshotPath = Files.createTempDirectory("smire-bench-snapshot").resolve("data.snapshot");
+                // Service pertama mem-parse sumber lalu menulis snapshot; iterasi benchmark membacanya
+                BenchmarkDatasets.dataService(location, snapshotPath);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (snapshotPath != null) {
+                try (var files = Files.list(snapshotPath.getParent())) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(snapshotPath.getParent());
+            }
+        }
+    }
+
+    /**
+     * State filterData: store yang sudah dimuat, dengan merchant teratas bulan pertama sebagai filter merchant_name.
+     */
+    @State(Scope.Benchmark)
+    public static class StoreState {
+        @Param({BenchmarkDatasets.BUNDLED, "100000", "1000000"})
+        public String dataset;
+
+        SmirePartitionedStore store;
+        String merchantName;
+        String productType;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            store = BenchmarkDatasets.dataService(BenchmarkDatasets.location(dataset), null).current();
+            Map<String, Aggregate> byMerchant = store.summarizeBy(Dimension.MERCHANT_NAME, MONTH, null, null, null, null);
+            merchantName = byMerchant.keySet().iterator().next();
+            productType = store.summarizeBy(Dimension.PRODUCT_TYPE, MONTH, null, null, null, null).keySet().iterator().next();
+        }
+    }
+
+    /**
+     * Contoh nilai tpv/tpt seperti di data sumber: koma ribuan, desimal, tanda, spasi, dan nilai kotor.
+     */
+    @State(Scope.Benchmark)
+    public static class NumberState {
+        final String[] samples = {
+                "0", "1,250", "1,000,000.50", "98765432.125", "-3,400.75", " 42 ",
+                "12,345,678,901.99", "7.5", "N/A", "", "1.2.3", "--"
+        };
+    }
+
+    @Benchmark
+    public SmirePartitionedStore loadSmireData(LoadState state) {
+        SmireDataService service = BenchmarkDatasets.dataService(state.location, state.snapshotPath);
+        return service.current();
+    }
+
+    @Benchmark
+    public Aggregate filterData(StoreState state) {
+        return state.store.summarize(MONTH, null, state.productType, null, null);
+    }
+
+    @Benchmark
+    public Aggregate filterDataMerchant(StoreState state) {
+        return state.store.summarize(MONTH, null, null, null, state.merchantName);
+    }
+
+    @Benchmark
+    public void cleanAndParseNumber(NumberState state, Blackhole blackhole) {
+        for (String sample : state.samples) {
+            try {
+                blackhole.consume(FixedPoint.parse(sample, SmireColumnStore.TPV_FRACTION_DIGITS));
+            } catch (NumberFormatException e) {
+                // Nilai kotor: loader menghitungnya sebagai malformed dan memakai 0
+                blackhole.consume(0L);
+            }
+        }
+    }
+}
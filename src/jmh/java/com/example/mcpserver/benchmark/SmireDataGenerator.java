@@ -0,0 +1,447 @@
+package com.example.mcpserver.benchmark;
+
+import com.example.mcpserver.store.SmireJsonLoader;
+import com.example.mcpserver.store.SmireSnapshot;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generator dataset SMIRE sintetis dengan skema yang sama seperti data_smire_final.json, deterministik untuk seed
+ * dan opsi yang sama (urutan baris identik di semua format). Distribusi dibuat mendekati data produksi:
+ * <ul>
+ *     <li>jumlah baris per merchant mengikuti Zipf (sedikit merchant besar, ekor panjang merchant kecil)</li>
+ *     <li>banyak pillar dengan ukuran tidak seimbang, beberapa product type</li>
+ *     <li>musiman: jumlah baris dan nilai tpv per bulan naik-turun sepanjang tahun dengan puncak Desember, plus tren naik</li>
+ *     <li>sebagian baris tidak aktif (tpv/tpt "0"), angka ditulis dengan koma ribuan seperti data asli</li>
+ *     <li>nilai kotor dengan proporsi {@code dirtyRate}: angka tidak valid, null, field hilang, bulan kosong</li>
+ * </ul>
+ * Output: JSON array, NDJSON, dan snapshot biner (dibuat lewat SmireJsonLoader agar pembersihan nilai sama dengan server).
+ *
+ * <pre>
+ * mvn -P benchmark compile exec:java -Dexec.mainClass=com.example.mcpserver.benchmark.SmireDataGenerator \
+ *     -Dexec.args="--rows 10000000 --out /data/smire-10m.ndjson --snapshot /data/smire-10m.snapshot"
+ * </pre>
+ */
+public final class SmireDataGenerator {
+
+    // Naikkan jika distribusi berubah, agar file sintetis yang di-cache benchmark dibuat ulang
+    public static final int VERSION = 2;
+
+    private static final String[] PILLARS = {
+            "Wallets_Billing", "Payments_Gateway", "Lending", "Remittance", "Digital_Goods", "Travel",
+            "Insurance", "Education", "Healthcare", "Retail", "Logistics", "F&B", "Government", "Marketplace",
+            "Gaming", "Property"
+    };
+    private static final String[] PRODUCT_TYPES = {"WaaS", "Sub Account", "PayChat", "Virtual Account", "QRIS", "Payment Link"};
+    private static final double[] PRODUCT_WEIGHTS = {0.30, 0.22, 0.18, 0.14, 0.10, 0.06};
+    private static final String[] NAME_PREFIXES = {
+            "Trust", "Doku", "Vault", "Sync", "Grid", "Nova", "Pay", "Swift", "Prime", "Astra", "Kilat", "Maju",
+            "Sentosa", "Cahaya", "Bumi", "Lintas", "Mitra", "Global", "Digi", "Arta"
+    };
+    private static final String[] NAME_SUFFIXES = {
+            "Sure", "Next", "Gate", "Edge", "Plus", "Pay", "Mart", "Hub", "Link", "Works", "Jaya", "Niaga",
+            "Point", "Store", "Go", "One"
+    };
+    private static final String[] DIRTY_NUMBERS = {"N/A", "", "-", "1.2.3", "12,34O", "null"};
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM-yy", Locale.ENGLISH);
+
+    // Proporsi baris tidak aktif (tpv dan tpt "0"); di data asli sekitar 40%
+    private static final double INACTIVE_RATE = 0.4;
+
+    private final long seed;
+    private final int merchants;
+    private final int pillars;
+    private final YearMonth firstMonth;
+    private final int months;
+    private final double zipfExponent;
+    private final double dirtyRate;
+
+    private SmireDataGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.merchants = builder.merchants;
+        this.pillars = builder.pillars;
+        this.firstMonth = builder.firstMonth;
+        this.months = builder.months;
+        this.zipfExponent = builder.zipfExponent;
+        this.dirtyRate = builder.dirtyRate;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Jumlah merchant default: tumbuh dengan ukuran data agar kardinalitas brand/merchant tetap realistis
+    public static int defaultMerchants(long rows) {
+        return (int) Math.max(100, Math.min(1_000_000, rows / 100));
+    }
+
+    // =========================
+    // Output
+    // =========================
+
+    /**
+     * Menulis {@code rows} baris NDJSON (satu objek per baris) ke {@code target}, ditimpa jika sudah ada.
+     */
+    public void writeNdjson(Path target, long rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            generate(writer, rows, false);
+        }
+    }
+
+    /**
+     * Menulis {@code rows} baris sebagai satu array JSON (format data_smire_final.json) ke {@code target}.
+     */
+    public void writeJson(Path target, long rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            generate(writer, rows, true);
+        }
+    }
+
+    /**
+     * Menulis snapshot biner dari file data {@code source} (JSON atau NDJSON) ke {@code snapshot}. Snapshot ditandai
+     * dengan sidik jari isi {@code source}, sehingga server dengan smire.data.location = source dan
+     * smire.snapshot.path = snapshot langsung boot dari snapshot.
+     */
+    public static void writeSnapshot(Path source, Path snapshot) throws IOException {
+        SmireJsonLoader.LoadResult result;
+        try (InputStream in = Files.newInputStream(source);
+             JsonParser parser = new JsonFactory().createParser(in)) {
+            result = SmireJsonLoader.load(parser);
+        }
+        Path parent = snapshot.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        long fingerprint;
+        try (InputStream in = Files.newInputStream(source)) {
+            fingerprint = SmireSnapshot.fingerprint(in);
+        }
+        SmireSnapshot.writeDataset(result.store(), snapshot, fingerprint);
+    }
+
+    // =========================
+    // Generation
+    // =========================
+
+    private void generate(Writer writer, long rows, boolean array) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        Merchant[] table = merchantTable(new SplittableRandom(seed ^ 0x5DEECE66DL));
+        double[] merchantCdf = zipfCdf(merchants, zipfExponent);
+        double[] monthWeights = monthWeights();
+        double[] monthCdf = cdf(monthWeights);
+        double[] productCdf = cdf(PRODUCT_WEIGHTS);
+        String[] monthLabels = new String[months];
+        for (int m = 0; m < months; m++) {
+            monthLabels[m] = firstMonth.plusMonths(m).format(MONTH_FORMAT);
+        }
+
+        StringBuilder row = new StringBuilder(256);
+        if (array) {
+            writer.write("[\n");
+        }
+        for (long i = 0; i < rows; i++) {
+            Merchant merchant = table[sample(merchantCdf, random.nextDouble())];
+            int month = sample(monthCdf, random.nextDouble());
+            String productType = PRODUCT_TYPES[sample(productCdf, random.nextDouble())];
+
+            String tpv = "0";
+            String tpt = "0";
+            if (random.nextDouble() >= INACTIVE_RATE) {
+                // tpt ~ lognormal per skala merchant, tpv = tpt x nilai transaksi rata-rata (rupiah)
+                long transactions = Math.max(1, Math.round(merchant.scale * monthWeights[month] * Math.exp(random.nextGaussian())));
+                long ticket = Math.round(150_000 * Math.exp(0.8 * random.nextGaussian()));
+                tpt = Long.toString(transactions);
+                tpv = formatAmount(transactions * ticket, random);
+            }
+
+            row.setLength(0);
+            if (i > 0 && array) {
+                row.append(",\n");
+            }
+            if (random.nextDouble() < dirtyRate) {
+                appendDirtyRow(row, merchant, monthLabels[month], productType, tpv, tpt, random);
+            } else {
+                appendRow(row, merchant.pillar, merchant.brandId, merchant.name, productType, quote(tpt), quote(tpv), monthLabels[month]);
+            }
+            if (!array) {
+                row.append('\n');
+            }
+            writer.append(row);
+        }
+        if (array) {
+            writer.write("\n]\n");
+        }
+    }
+
+    // Angka seperti data asli: umumnya string dengan koma ribuan, sebagian tanpa koma atau dengan desimal
+    private static String formatAmount(long amount, SplittableRandom random) {
+        double style = random.nextDouble();
+        if (style < 0.80) {
+            return withThousands(amount);
+        } else if (style < 0.95) {
+            return Long.toString(amount);
+        } else {
+            int cents = random.nextInt(100);
+            return withThousands(amount) + (cents < 10 ? ".0" : ".") + cents;
+        }
+    }
+
+    // 1234567 -> "1,234,567" (String.format terlalu lambat untuk ratusan juta baris)
+    private static String withThousands(long amount) {
+        String digits = Long.toString(amount);
+        int length = digits.length();
+        StringBuilder formatted = new StringBuilder(length + length / 3);
+        for (int i = 0; i < length; i++) {
+            if (i > 0 && (length - i) % 3 == 0) {
+                formatted.append(',');
+            }
+            formatted.append(digits.charAt(i));
+        }
+        return formatted.toString();
+    }
+
+    private void appendDirtyRow(StringBuilder row, Merchant merchant, String month, String productType, String tpv,
+                                String tpt, SplittableRandom random) {
+        String dirtyNumber = quote(DIRTY_NUMBERS[random.nextInt(DIRTY_NUMBERS.length)]);
+        switch (random.nextInt(6)) {
+            // Angka tidak valid -> dihitung malformed oleh loader, nilainya 0
+            case 0 -> appendRow(row, merchant.pillar, merchant.brandId, merchant.name, productType, quote(tpt), dirtyNumber, month);
+            case 1 -> appendRow(row, merchant.pillar, merchant.brandId, merchant.name, productType, dirtyNumber, quote(tpv), month);
+            // Angka sebagai number JSON (bukan string) dan null
+            case 2 -> appendRow(row, merchant.pillar, merchant.brandId, merchant.name, productType, tpt, "null", month);
+            // Dimensi null / kosong -> dikelompokkan sebagai Unknown
+            case 3 -> appendRow(row, null, merchant.brandId, merchant.name, null, quote(tpt), quote(tpv), month);
+            // Bulan kosong -> partisi tanpa bulan
+            case 4 -> appendRow(row, merchant.pillar, merchant.brandId, merchant.name, productType, quote(tpt), quote(tpv), "");
+            // Field hilang dan field tambahan yang tidak dikenal
+            default -> row.append("{\"pillar\":").append(quote(merchant.pillar))
+                    .append(",\"merchant_name\":").append(quote(merchant.name))
+                    .append(",\"tpv\":").append(quote(tpv))
+                    .append(",\"month\":").append(quote(month))
+                    .append(",\"note\":{\"source\":\"manual\"}}");
+        }
+    }
+
+    // Urutan field sama dengan data_smire_final.json; tpv/tpt sudah dalam bentuk literal JSON
+    private static void appendRow(StringBuilder row, String pillar, String brandId, String merchantName, String productType,
+                                  String tpt, String tpv, String month) {
+        row.append("{\"pillar\":").append(quote(pillar))
+                .append(",\"brand_id\":").append(quote(brandId))
+                .append(",\"merchant_name\":").append(quote(merchantName))
+                .append(",\"product_type\":").append(quote(productType))
+                .append(",\"tpt\":").append(tpt)
+                .append(",\"tpv\":").append(tpv)
+                .append(",\"month\":").append(quote(month))
+                .append('}');
+    }
+
+    // Literal string JSON; nilai yang dihasilkan generator tidak mengandung karakter yang perlu di-escape
+    private static String quote(String value) {
+        return value == null ? "null" : "\"" + value + "\"";
+    }
+
+    // =========================
+    // Distribusi
+    // =========================
+
+    /**
+     * Atribut tetap per merchant: pillar (Zipf atas pillar), brand_id, nama unik, dan skala jumlah transaksi.
+     */
+    private record Merchant(String pillar, String brandId, String name, double scale) {
+    }
+
+    private Merchant[] merchantTable(SplittableRandom random) {
+        double[] pillarCdf = zipfCdf(pillars, 1.0);
+        Merchant[] table = new Merchant[merchants];
+        int combinations = NAME_PREFIXES.length * NAME_SUFFIXES.length;
+        for (int rank = 0; rank < merchants; rank++) {
+            int pillar = sample(pillarCdf, random.nextDouble());
+            String name = NAME_PREFIXES[rank % NAME_PREFIXES.length]
+                    + NAME_SUFFIXES[(rank / NAME_PREFIXES.length) % NAME_SUFFIXES.length]
+                    + (rank >= combinations ? Integer.toString(rank / combinations) : "");
+            String brandId = String.format(Locale.ROOT, "BRN-%04d-%013d", 101 + pillar, 1_700_000_000_000L + random.nextLong(100_000_000_000L));
+            // Merchant dengan peringkat atas juga bertransaksi lebih banyak per baris
+            double scale = 20 + 2_000 / Math.sqrt(rank + 1.0);
+            table[rank] = new Merchant(PILLARS[pillar % PILLARS.length] + (pillar >= PILLARS.length ? "_" + pillar / PILLARS.length : ""),
+                    brandId, name, scale);
+        }
+        return table;
+    }
+
+    // Bobot musiman per bulan: gelombang tahunan, puncak Desember, tren naik 1% per bulan
+    private double[] monthWeights() {
+        double[] weights = new double[months];
+        for (int m = 0; m < months; m++) {
+            int monthOfYear = firstMonth.plusMonths(m).getMonthValue();
+            double seasonal = 1 + 0.2 * Math.sin(2 * Math.PI * (monthOfYear - 4) / 12.0);
+            if (monthOfYear == 12) {
+                seasonal += 0.35;
+            }
+            weights[m] = seasonal * Math.pow(1.01, m);
+        }
+        return weights;
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] weights = new double[n];
+        for (int k = 0; k < n; k++) {
+            weights[k] = 1 / Math.pow(k + 1, exponent);
+        }
+        return cdf(weights);
+    }
+
+    private static double[] cdf(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cdf[i] = total;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= total;
+        }
+        return cdf;
+    }
+
+    // Indeks pertama dengan cdf >= u (inverse transform sampling)
+    private static int sample(double[] cdf, double u) {
+        int index = Arrays.binarySearch(cdf, u);
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+
+    // =========================
+    // Builder
+    // =========================
+
+    public static final class Builder {
+        private long seed = 42L;
+        private int merchants = 1_000;
+        private int pillars = 12;
+        private YearMonth firstMonth = YearMonth.of(2024, 10);
+        private int months = 12;
+        private double zipfExponent = 1.1;
+        private double dirtyRate = 0.01;
+
+        private Builder() {
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder merchants(int merchants) {
+            this.merchants = requirePositive(merchants, "merchants");
+            return this;
+        }
+
+        public Builder pillars(int pillars) {
+            this.pillars = requirePositive(pillars, "pillars");
+            return this;
+        }
+
+        // Bulan pertama dan jumlah bulan (default Oct-24 s/d Sep-25, sama dengan data bawaan)
+        public Builder months(YearMonth firstMonth, int months) {
+            this.firstMonth = firstMonth;
+            this.months = requirePositive(months, "months");
+            return this;
+        }
+
+        public Builder zipfExponent(double zipfExponent) {
+            this.zipfExponent = zipfExponent;
+            return this;
+        }
+
+        public Builder dirtyRate(double dirtyRate) {
+            if (dirtyRate < 0 || dirtyRate > 1) {
+                throw new IllegalArgumentException("dirtyRate harus di antara 0 dan 1");
+            }
+            this.dirtyRate = dirtyRate;
+            return this;
+        }
+
+        public SmireDataGenerator build() {
+            return new SmireDataGenerator(this);
+        }
+
+        private static int requirePositive(int value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " harus lebih dari 0");
+            }
+            return value;
+        }
+    }
+
+    // =========================
+    // CLI
+    // =========================
+
+    /**
+     * {@code --rows N --out file.(json|ndjson) [--snapshot path] [--seed S] [--merchants M] [--pillars P]
+     * [--first-month Oct-24] [--months 12] [--zipf 1.1] [--dirty-rate 0.01]}. Ekstensi .json menulis array JSON,
+     * selain itu NDJSON.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Argumen tidak dikenal: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (!options.containsKey("rows") || !options.containsKey("out")) {
+            System.err.println("Penggunaan: --rows N --out file.(json|ndjson) [--snapshot path] [--seed S] [--merchants M] "
+                    + "[--pillars P] [--first-month Oct-24] [--months 12] [--zipf 1.1] [--dirty-rate 0.01]");
+            System.exit(2);
+        }
+
+        long rows = Long.parseLong(options.get("rows"));
+        Builder builder = builder()
+                .seed(Long.parseLong(options.getOrDefault("seed", "42")))
+                .merchants(Integer.parseInt(options.getOrDefault("merchants", Integer.toString(defaultMerchants(rows)))))
+                .pillars(Integer.parseInt(options.getOrDefault("pillars", "12")))
+                .zipfExponent(Double.parseDouble(options.getOrDefault("zipf", "1.1")))
+                .dirtyRate(Double.parseDouble(options.getOrDefault("dirty-rate", "0.01")));
+        if (options.containsKey("first-month") || options.containsKey("months")) {
+            builder.months(YearMonth.parse(options.getOrDefault("first-month", "Oct-24"), MONTH_FORMAT),
+                    Integer.parseInt(options.getOrDefault("months", "12")));
+        }
+        SmireDataGenerator generator = builder.build();
+
+        Path out = Path.of(options.get("out"));
+        Path parent = out.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        long start = System.nanoTime();
+        if (out.getFileName().toString().endsWith(".json")) {
+            generator.writeJson(out, rows);
+        } else {
+            generator.writeNdjson(out, rows);
+        }
+        System.out.println("INFO: " + rows + " baris ditulis ke " + out + " (" + Files.size(out) / (1024 * 1024) + " MB, "
+                + (System.nanoTime() - start) / 1_000_000 + " ms)");
+
+        if (options.containsKey("snapshot")) {
+            Path snapshot = Path.of(options.get("snapshot"));
+            start = System.nanoTime();
+            writeSnapshot(out, snapshot);
+            System.out.println("INFO: snapshot ditulis ke " + snapshot + " (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+        }
+    }
+}
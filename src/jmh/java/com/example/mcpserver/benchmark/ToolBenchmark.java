@@ -0,0 +1,129 @@
+package com.example.mcpserver.benchmark;
+
+import com.example.mcpserver.service.ComputeLimiter;
+import com.example.mcpserver.service.PaymentsAnalyticsToolService;
+import com.example.mcpserver.service.SmireDataService;
+import com.example.mcpserver.service.ToolResultCache;
+import com.example.mcpserver.store.SmireColumnStore.Dimension;
+import com.example.mcpserver.store.SmireColumnStore.Ranking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark setiap @Tool di PaymentsAnalyticsToolService, dipanggil langsung (tanpa transport MCP) dengan
+ * result cache dimatikan agar yang diukur adalah query-nya. Argumen memakai bulan yang ada di data bawaan
+ * maupun data sintetis (Oct-24 s/d Sep-25).
+ *
+ * <pre>
+ * mvn -P benchmark compile exec:exec -Djmh.args="ToolBenchmark -prof gc"
+ * mvn -P benchmark compile exec:exec -Djmh.args="ToolBenchmark -p dataset=100000000 -jvmArgsAppend -Xmx24g"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx8g"})
+public class ToolBenchmark {
+
+    private static final String MONTH = "Oct-24";
+    private static final String NEXT_MONTH = "Nov-24";
+    private static final String LAST_MONTH = "Sep-25";
+    private static final String PRODUCT_TYPE = "WaaS";
+
+    // bundled = data_smire_final.json, angka = jumlah baris sintetis (10^7 / 10^8 lewat -p dataset=...)
+    @Param({BenchmarkDatasets.BUNDLED, "100000", "1000000"})
+    public String dataset;
+
+    private PaymentsAnalyticsToolService tools;
+    private String merchantName;
+
+    @Setup
+    public void setUp() {
+        SmireDataService dataService = BenchmarkDatasets.dataService(BenchmarkDatasets.location(dataset), null);
+        tools = new PaymentsAnalyticsToolService(dataService, new ToolResultCache(false, 1, 1), new ComputeLimiter(0, 30000));
+        // Merchant teratas di bulan pertama, agar filter merchant_name selalu menemukan baris
+        YearMonth first = YearMonth.of(2024, 10);
+        merchantName = dataService.current().rank(Dimension.MERCHANT_NAME, first, first, null, null, Ranking.TPV, 1, false)
+                .get(0).key();
+    }
+
+    @Benchmark
+    public String get_welcome_message_en() {
+        return tools.get_welcome_message_en();
+    }
+
+    @Benchmark
+    public String get_welcome_message() {
+        return tools.get_welcome_message();
+    }
+
+    @Benchmark
+    public Map<String, Object> get_summary_analytics() {
+        return tools.get_summary_analytics(MONTH, null, PRODUCT_TYPE, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> get_summary_analytics_merchant() {
+        return tools.get_summary_analytics(MONTH, null, null, null, merchantName);
+    }
+
+    @Benchmark
+    public Map<String, Object> get_monthly_growth() {
+        return tools.get_monthly_growth(MONTH, NEXT_MONTH, null, PRODUCT_TYPE, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> get_growth_series() {
+        return tools.get_growth_series(null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> get_merchant_recommendation() {
+        return tools.get_merchant_recommendation(MONTH);
+    }
+
+    @Benchmark
+    public Map<String, Object> get_product_mix() {
+        return tools.get_product_mix(MONTH, null, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> get_data_by_pillar() {
+        return tools.get_data_by_pillar(MONTH, null, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> get_data_by_product_type() {
+        return tools.get_data_by_product_type(MONTH, null, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> get_grouped_metrics() {
+        return tools.get_grouped_metrics("month,product_type", "tpv,tpt,count", null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> get_grouped_metrics_merchant() {
+        return tools.get_grouped_metrics("merchant_name", "tpv", MONTH, null, null, null, null, 100);
+    }
+
+    @Benchmark
+    public Map<String, Object> get_top_merchants() {
+        return tools.get_top_merchants(MONTH, LAST_MONTH, "tpv", "top", 10, null, null, null);
+    }
+}
@@ -1,23 +1,68 @@
 package com.example.mcpserver;
 
+import com.example.mcpserver.service.AsyncToolExecutor;
 import com.example.mcpserver.service.PaymentsAnalyticsToolService;
+import com.example.mcpserver.service.ToolMetrics;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpStatelessServerFeatures;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 
+import java.util.List;
+
 
 @SpringBootApplication
 public class McpServerApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(McpServerApplication.class, args);
+		SpringApplication application = new SpringApplication(McpServerApplication.class);
+		application.addListeners(virtualThreadSchedulers());
+		application.run(args);
+	}
+
+	// spring.threads.virtual.enabled=true menjalankan request Tomcat di virtual thread; listener ini juga memindahkan
+	// Schedulers.boundedElastic() Reactor (dipakai MCP SDK untuk tool yang tidak dieksekusi langsung) ke virtual thread.
+	// Harus diset sebelum Reactor diinisialisasi, jadi dibaca dari environment sebelum context dibuat.
+	static ApplicationListener<ApplicationEnvironmentPreparedEvent> virtualThreadSchedulers() {
+		return event -> {
+			if (event.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+				System.setProperty("reactor.schedulers.defaultBoundedElasticOnVirtualThreads", "true");
+				System.out.println("INFO: mode virtual thread aktif untuk request dan eksekusi tool.");
+			}
+		};
+	}
+
+	// Semua tool dibungkus ToolMetrics: latensi, jumlah panggilan/error, baris yang dibaca dan ukuran hasil per tool
+	@Bean
+	@ConditionalOnProperty(name = "spring.ai.mcp.server.type", havingValue = "SYNC", matchIfMissing = true)
+	public ToolCallbackProvider checkStatusTools(PaymentsAnalyticsToolService checkStatusTool, ToolMetrics toolMetrics) {
+		return instrumentedTools(checkStatusTool, toolMetrics);
 	}
 
+	// Mode ASYNC: tool yang sama (dengan metrik) sebagai Mono di scheduler komputasi khusus; kedua bean disediakan,
+	// server MCP hanya memakai yang sesuai spring.ai.mcp.server.protocol (STATELESS atau SSE/STREAMABLE)
 	@Bean
-	public ToolCallbackProvider checkStatusTools(PaymentsAnalyticsToolService checkStatusTool) {
-		return MethodToolCallbackProvider.builder().toolObjects(checkStatusTool).build();
+	@ConditionalOnProperty(name = "spring.ai.mcp.server.type", havingValue = "ASYNC")
+	public List<McpStatelessServerFeatures.AsyncToolSpecification> asyncStatelessTools(PaymentsAnalyticsToolService checkStatusTool,
+			ToolMetrics toolMetrics, AsyncToolExecutor asyncToolExecutor) {
+		return asyncToolExecutor.statelessSpecifications(instrumentedTools(checkStatusTool, toolMetrics));
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "spring.ai.mcp.server.type", havingValue = "ASYNC")
+	public List<McpServerFeatures.AsyncToolSpecification> asyncTools(PaymentsAnalyticsToolService checkStatusTool,
+			ToolMetrics toolMetrics, AsyncToolExecutor asyncToolExecutor) {
+		return asyncToolExecutor.specifications(instrumentedTools(checkStatusTool, toolMetrics));
+	}
+
+	private static ToolCallbackProvider instrumentedTools(PaymentsAnalyticsToolService checkStatusTool, ToolMetrics toolMetrics) {
+		return toolMetrics.instrument(MethodToolCallbackProvider.builder().toolObjects(checkStatusTool).build());
 	}
 
 }
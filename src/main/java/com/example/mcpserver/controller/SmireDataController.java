@@ -0,0 +1,57 @@
+package com.example.mcpserver.controller;
+
+import com.example.mcpserver.service.SmireDataService;
+import com.example.mcpserver.service.ToolResultCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint administrasi dataset SMIRE: append baris bulan baru tanpa reload penuh dan statistik result cache.
+ */
+@RestController
+@RequestMapping("/api/smire")
+public class SmireDataController {
+
+    private final SmireDataService dataService;
+    private final ToolResultCache resultCache;
+
+    @Autowired
+    public SmireDataController(SmireDataService dataService, ToolResultCache resultCache) {
+        this.dataService = dataService;
+        this.resultCache = resultCache;
+    }
+
+    // Body berupa array JSON atau NDJSON (satu objek per baris) dengan field yang sama seperti data_smire_final.json
+    @PostMapping(value = "/rows", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Map<String, Object> appendRows(@RequestBody byte[] body) {
+        SmireDataService.AppendResult result;
+        try {
+            result = dataService.appendRows(body);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch tidak dapat diproses: " + e.getMessage(), e);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("Appended_Rows", result.appendedRows());
+        response.put("Affected_Months", result.affectedMonths());
+        response.put("Total_Rows", result.totalRows());
+        return response;
+    }
+
+    // Statistik hit/miss result cache tool analytics
+    @GetMapping("/cache/stats")
+    public Map<String, Object> cacheStats() {
+        return resultCache.stats();
+    }
+}
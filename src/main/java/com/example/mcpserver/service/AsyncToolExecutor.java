@@ -0,0 +1,73 @@
+package com.example.mcpserver.service;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpStatelessServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import jakarta.annotation.PreDestroy;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Varian non-blocking dari tool analytics untuk {@code spring.ai.mcp.server.type=ASYNC}: setiap tool dijalankan
+ * sebagai {@link Mono} di scheduler komputasi khusus ({@code smire-compute}), bukan di thread servlet atau
+ * {@code boundedElastic} bawaan. Thread scheduler sebanyak {@code smire.compute.max-concurrency}, sehingga
+ * banyak sesi MCP bersamaan cukup dilayani sedikit thread dan agregasi tidak pernah mengantre di {@link ComputeLimiter}.
+ */
+@Service
+public class AsyncToolExecutor {
+
+    private final Scheduler compute;
+
+    @Autowired
+    public AsyncToolExecutor(ComputeLimiter computeLimiter) {
+        this.compute = Schedulers.newParallel("smire-compute", computeLimiter.maxConcurrency(), true);
+    }
+
+    /**
+     * Spesifikasi tool async untuk server MCP stateless ({@code spring.ai.mcp.server.protocol=STATELESS}).
+     * Konversi argumen dan hasil (termasuk error tool) sama dengan mode SYNC; hanya eksekusinya yang dipindah.
+     */
+    public List<McpStatelessServerFeatures.AsyncToolSpecification> statelessSpecifications(ToolCallbackProvider provider) {
+        List<McpStatelessServerFeatures.AsyncToolSpecification> specifications = new ArrayList<>();
+        for (ToolCallback tool : provider.getToolCallbacks()) {
+            McpStatelessServerFeatures.SyncToolSpecification sync = McpToolUtils.toStatelessSyncToolSpecification(tool, null);
+            specifications.add(McpStatelessServerFeatures.AsyncToolSpecification.builder()
+                    .tool(sync.tool())
+                    .callHandler((context, request) -> Mono.fromCallable(() -> sync.callHandler().apply(context, request))
+                            .subscribeOn(compute))
+                    .build());
+        }
+        return specifications;
+    }
+
+    /**
+     * Spesifikasi tool async untuk server MCP dengan sesi (protocol SSE / STREAMABLE).
+     */
+    public List<McpServerFeatures.AsyncToolSpecification> specifications(ToolCallbackProvider provider) {
+        List<McpServerFeatures.AsyncToolSpecification> specifications = new ArrayList<>();
+        for (ToolCallback tool : provider.getToolCallbacks()) {
+            McpServerFeatures.SyncToolSpecification sync = McpToolUtils.toSyncToolSpecification(tool, null);
+            specifications.add(McpServerFeatures.AsyncToolSpecification.builder()
+                    .tool(sync.tool())
+                    .callHandler((exchange, request) -> Mono.fromCallable(
+                                    () -> sync.callHandler().apply(new McpSyncServerExchange(exchange), request))
+                            .subscribeOn(compute))
+                    .build());
+        }
+        return specifications;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compute.dispose();
+    }
+}
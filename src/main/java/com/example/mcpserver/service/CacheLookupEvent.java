@@ -0,0 +1,23 @@
+package com.example.mcpserver.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event JFR untuk lookup {@link ToolResultCache} (hit atau miss) per tool.
+ */
+@Name("com.example.mcpserver.CacheLookup")
+@Label("SMIRE Cache Lookup")
+@Category({"SMIRE", "Tools"})
+@StackTrace(false)
+final class CacheLookupEvent extends Event {
+
+    @Label("Tool")
+    String tool;
+
+    @Label("Hit")
+    boolean hit;
+}
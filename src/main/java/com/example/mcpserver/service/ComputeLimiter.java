@@ -0,0 +1,60 @@
+package com.example.mcpserver.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Membatasi jumlah agregasi CPU-heavy (query tool yang tidak terjawab dari cache) yang berjalan bersamaan.
+ * Dengan virtual thread ({@code spring.threads.virtual.enabled=true}) jumlah request tidak lagi dibatasi pool
+ * Tomcat, sehingga tanpa batas ini ratusan agregasi bisa memonopoli carrier thread dan menahan request lain
+ * yang sedang menunggu I/O. Pemanggil yang tidak mendapat slot dalam {@code smire.compute.acquire-timeout-ms}
+ * mendapat error "server sibuk" alih-alih mengantre tanpa batas.
+ */
+@Service
+public class ComputeLimiter {
+
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long acquireTimeoutMs;
+
+    @Autowired
+    public ComputeLimiter(@Value("${smire.compute.max-concurrency:0}") int maxConcurrency,
+                          @Value("${smire.compute.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        this.maxConcurrency = maxConcurrency > 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors();
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        // Fair: pemanggil dilayani sesuai urutan datang agar latensi ekor tetap terkendali saat beban tinggi
+        this.permits = new Semaphore(this.maxConcurrency, true);
+        System.out.println("INFO: maksimal " + this.maxConcurrency + " agregasi tool berjalan bersamaan.");
+    }
+
+    /**
+     * Menjalankan {@code computation} setelah mendapat slot.
+     * IllegalStateException jika slot tidak didapat dalam batas waktu atau thread diinterupsi.
+     */
+    public <T> T run(Supplier<T> computation) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Query dibatalkan saat menunggu giliran agregasi.", e);
+        }
+        if (!acquired) {
+            throw new IllegalStateException("Server sedang sibuk (" + maxConcurrency + " agregasi berjalan); coba lagi sebentar lagi.");
+        }
+        try {
+            return computation.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+}
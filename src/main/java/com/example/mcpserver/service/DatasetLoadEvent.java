@@ -0,0 +1,35 @@
+package com.example.mcpserver.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event JFR untuk fase pemuatan dataset: {@code startup}, {@code reload} dan {@code append} sebagai keseluruhan,
+ * serta fase di dalamnya ({@code snapshot_read}, {@code json_parse}, {@code snapshot_write}, {@code deltas}).
+ */
+@Name("com.example.mcpserver.DatasetLoad")
+@Label("SMIRE Dataset Load")
+@Category({"SMIRE", "Data"})
+@Description("Fase pemuatan / reload dataset SMIRE")
+@StackTrace(false)
+final class DatasetLoadEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Source")
+    String source;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Partitions")
+    int partitions;
+
+    @Label("Success")
+    boolean success;
+}
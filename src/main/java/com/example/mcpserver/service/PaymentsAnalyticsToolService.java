@@ -1,17 +1,25 @@
 package com.example.mcpserver.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.mcpserver.store.Aggregate;
+import com.example.mcpserver.store.Months;
+import com.example.mcpserver.store.RankedGroup;
+import com.example.mcpserver.store.SmireColumnStore;
+import com.example.mcpserver.store.SmireColumnStore.Dimension;
+import com.example.mcpserver.store.SmireColumnStore.Ranking;
+import com.example.mcpserver.store.SmirePartitionedStore;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Collections;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 // ... (Bagian Javadoc)
@@ -19,98 +27,76 @@ import java.util.stream.Collectors;
 @Service
 public class PaymentsAnalyticsToolService {
 
-    private final List<Map<String, Object>> smireData;
+    // Metrik yang didukung get_grouped_metrics
+    private static final List<String> SUPPORTED_METRICS = List.of("tpv", "tpt", "count", "min_tpv", "max_tpv");
 
-    @Autowired
-    public PaymentsAnalyticsToolService(ResourceLoader resourceLoader, ObjectMapper objectMapper) {
-        this.smireData = loadSmireData(resourceLoader, objectMapper);
+    // Jumlah grup default yang dikembalikan get_grouped_metrics
+    private static final int DEFAULT_GROUP_LIMIT = 500;
 
-        if (this.smireData.isEmpty()) {
-            System.err.println("PERINGATAN: data_smire_final.json gagal dimuat atau kosong. Tools akan mengembalikan hasil placeholder.");
-        } else {
-            // Log total baris
-            System.out.println("INFO: data_smire_final.json berhasil dimuat. Total baris: " + this.smireData.size());
-        }
+    // Jumlah merchant default yang dikembalikan get_top_merchants
+    private static final int DEFAULT_TOP_N = 10;
+
+    private final SmireDataService dataService;
+    private final ToolResultCache resultCache;
+    private final ComputeLimiter computeLimiter;
+
+    @Autowired
+    public PaymentsAnalyticsToolService(SmireDataService dataService, ToolResultCache resultCache,
+                                        ComputeLimiter computeLimiter) {
+        this.dataService = dataService;
+        this.resultCache = resultCache;
+        this.computeLimiter = computeLimiter;
     }
 
     // =========================
     // Private Utility Methods
     // =========================
 
-    // Metode untuk memuat data dari JSON
-    private List<Map<String, Object>> loadSmireData(ResourceLoader resourceLoader, ObjectMapper objectMapper) {
-        try {
-            Resource resource = resourceLoader.getResource("classpath:data/data_smire_final.json");
-
-            // Cek apakah resource benar-benar ada (Tambahan Debugging)
-            if (!resource.exists()) {
-                throw new IOException("File data_smire_final.json tidak ditemukan di classpath.");
-            }
-
-            try (InputStream is = resource.getInputStream()) {
-                List<Map<String, Object>> data = objectMapper.readValue(is, objectMapper.getTypeFactory().constructCollectionType(List.class, Map.class));
-
-                // Cek apakah data kosong (Tambahan Debugging)
-                if (data.isEmpty()) {
-                    System.err.println("PERINGATAN: data_smire_final.json ditemukan, tetapi kontennya kosong atau tidak valid.");
-                }
-
-                return data;
-            }
-        } catch (IOException e) {
-            // Error ini akan menangkap jika file tidak ada atau gagal dibaca/parse
-            System.err.println("Gagal memuat data_smire_final.json: " + e.getMessage());
-            return Collections.emptyList();
-        }
-    }
-
     // ... (sisa utility methods dan tool methods lainnya)
 
-    // Utility untuk menyesuaikan format bulan (asumsi input Oct-24)
+    // Utility untuk menyesuaikan format bulan ke format data (Oct-24).
+    // Menerima Oct-24, 2024-10 atau October 2024; null berarti tanpa filter bulan.
     private String resolveMonth(String month) {
-        // Mengembalikan nilai bulan apa adanya karena format data sudah Oct-24
-        return month;
+        return month == null ? null : Months.format(Months.parse(month));
     }
 
-    // Utility untuk validasi format bulan (placeholder)
+    // Utility untuk validasi format bulan; IllegalArgumentException berisi pesan yang dikembalikan ke agent
     private void ensureYyyyMm(String month) {
-        // Logika validasi bulan dapat ditambahkan di sini
+        Months.parse(month);
     }
 
-    // Utility untuk membersihkan string angka dan mengonversinya menjadi Double
-    private double cleanAndParseNumber(Object value) {
-        if (value == null) {
-            return 0.0;
-        }
-        // Menghapus koma (misalnya "1,000,000" menjadi "1000000")
-        String s = value.toString().replace(",", "").trim();
-        try {
-            return Double.parseDouble(s);
-        } catch (NumberFormatException e) {
-            return 0.0;
+    // Utility untuk menghitung persentase pertumbuhan dari nilai a ke nilai b
+    private static String growthPct(double a, double b) {
+        if (a > 0) {
+            double growth = ((b - a) / a) * 100;
+            return String.format("%.2f%%", growth);
+        } else if (a == 0 && b > 0) {
+            return "Inf";
+        } else {
+            return "0.00%";
         }
     }
 
-    // Utility untuk memfilter data berdasarkan semua kriteria
-    private List<Map<String, Object>> filterData(String month, String pillar, String product_type, String brand_id, String merchant_name) {
-        if (this.smireData == null || this.smireData.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        return this.smireData.stream().filter(entry -> {
-            boolean monthMatch = (month == null || resolveMonth(month).equals(entry.get("month")));
-            // PERUBAHAN: pillar dan product_type diizinkan null atau kosong untuk kebutuhan grouping
-            boolean pillarMatch = (pillar == null || pillar.isEmpty() || pillar.equals(entry.get("pillar")));
-            boolean productMatch = (product_type == null || product_type.isEmpty() || product_type.equals(entry.get("product_type")));
-            boolean brandIdMatch = (brand_id == null || brand_id.isEmpty() || brand_id.equals(entry.get("brand_id")));
-
-            // Filter berdasarkan merchant_name (case-insensitive)
-            boolean merchantNameMatch = (merchant_name == null || merchant_name.isEmpty() ||
-                    (entry.get("merchant_name") != null && merchant_name.equalsIgnoreCase(entry.get("merchant_name").toString())));
+    // Utility untuk menjalankan query pada store aktif melalui result cache.
+    // Store diambil sekali di dalam query agar tetap konsisten saat dataset di-reload.
+    // Hanya cache miss (agregasi sebenarnya) yang dibatasi ComputeLimiter; cache hit tidak perlu menunggu slot.
+    private <T> T cachedQuery(ToolResultCache.Key key, Function<SmirePartitionedStore, T> query) {
+        return resultCache.get(key, () -> computeLimiter.run(() -> query.apply(dataService.current())));
+    }
 
-            return monthMatch && pillarMatch && productMatch && brandIdMatch && merchantNameMatch;
+    // Utility untuk menghitung total TPV/TPT berdasarkan semua kriteria filter pada store yang diberikan
+    // (tool mengambil store aktif sekali di awal agar tetap konsisten saat dataset di-reload).
+    // Dengan month hanya partisi bulan tersebut yang dibaca; di dalam partisi, tanpa merchant_name dijawab dari
+    // rollup cube dan dengan merchant_name memakai bitmap index + scan.
+    private Aggregate aggregateData(SmirePartitionedStore data, String month, String pillar, String product_type, String brand_id, String merchant_name) {
+        return data.summarize(resolveMonth(month), pillar, product_type, brand_id, merchant_name);
+    }
 
-        }).collect(Collectors.toList());
+    // Utility yang sama dengan aggregateData, tetapi dikelompokkan per nilai dimensi groupBy
+    private Map<String, Aggregate> aggregateDataBy(SmirePartitionedStore data, Dimension groupBy, String month, String pillar,
+                                                   String product_type, String brand_id, String merchant_name) {
+        // pillar dan product_type diizinkan null atau kosong untuk kebutuhan grouping
+        return data.summarizeBy(groupBy, resolveMonth(month), pillar, product_type, brand_id, merchant_name);
     }
     // =========================
     // Tool: get_welcome_message_en (English Greeting)
@@ -154,15 +140,12 @@ public class PaymentsAnalyticsToolService {
             String merchant_name      // Optional merchant_name
     ) {
         String resolvedMonth = resolveMonth(month);
-        List<Map<String, Object>> filteredData = filterData(resolvedMonth, pillar, product_type, brand_id, merchant_name);
+        ToolResultCache.Key key = ToolResultCache.Key.of("get_summary_analytics")
+                .month(resolvedMonth).filter(pillar).filter(product_type).filter(brand_id).merchant(merchant_name).build();
+        Aggregate total = cachedQuery(key, data -> aggregateData(data, resolvedMonth, pillar, product_type, brand_id, merchant_name));
 
-        double totalTpv = filteredData.stream()
-                .mapToDouble(entry -> cleanAndParseNumber(entry.get("tpv")))
-                .sum();
-
-        double totalTpt = filteredData.stream()
-                .mapToDouble(entry -> cleanAndParseNumber(entry.get("tpt")))
-                .sum();
+        double totalTpv = total.tpv();
+        long totalTpt = total.sumTpt();
 
         return Map.of(
                 "metric", "Monthly Summary for " + resolvedMonth,
@@ -174,7 +157,7 @@ public class PaymentsAnalyticsToolService {
                         "merchant_name", (merchant_name != null ? merchant_name : "")
                 ),
                 "Total_TPV", totalTpv,
-                "Total_TPT", (long) totalTpt
+                "Total_TPT", totalTpt
         );
     }
 
@@ -193,28 +176,18 @@ public class PaymentsAnalyticsToolService {
         ensureYyyyMm(month_a);
         ensureYyyyMm(month_b);
 
-        // Filter data dan hitung TPV untuk Bulan A
-        List<Map<String, Object>> dataA = filterData(resolveMonth(month_a), pillar, product_type, brand_id, merchant_name);
-        double totalTpvA = dataA.stream()
-                .mapToDouble(entry -> cleanAndParseNumber(entry.get("tpv")))
-                .sum();
+        ToolResultCache.Key key = ToolResultCache.Key.of("get_monthly_growth")
+                .month(resolveMonth(month_a)).month(resolveMonth(month_b)).filter(pillar).filter(product_type).filter(brand_id).merchant(merchant_name).build();
+        List<Aggregate> totals = cachedQuery(key, data -> List.of(
+                // Filter data dan hitung TPV untuk Bulan A
+                aggregateData(data, month_a, pillar, product_type, brand_id, merchant_name),
+                // Filter data dan hitung TPV untuk Bulan B
+                aggregateData(data, month_b, pillar, product_type, brand_id, merchant_name)));
 
-        // Filter data dan hitung TPV untuk Bulan B
-        List<Map<String, Object>> dataB = filterData(resolveMonth(month_b), pillar, product_type, brand_id, merchant_name);
-        double totalTpvB = dataB.stream()
-                .mapToDouble(entry -> cleanAndParseNumber(entry.get("tpv")))
-                .sum();
-
-        String growthPct;
+        double totalTpvA = totals.get(0).tpv();
+        double totalTpvB = totals.get(1).tpv();
 
-        if (totalTpvA > 0) {
-            double growth = ((totalTpvB - totalTpvA) / totalTpvA) * 100;
-            growthPct = String.format("%.2f%%", growth);
-        } else if (totalTpvA == 0 && totalTpvB > 0) {
-            growthPct = "Inf";
-        } else {
-            growthPct = "0.00%";
-        }
+        String growthPct = growthPct(totalTpvA, totalTpvB);
 
         return Map.of(
                 "metric", "Monthly TPV Growth (" + month_a + " -> " + month_b + ")",
@@ -232,6 +205,76 @@ public class PaymentsAnalyticsToolService {
         );
     }
 
+    // =========================
+    // Tool: get_growth_series
+    // =========================
+    @Tool(description = "Deret waktu TPV dan TPT per bulan beserta pertumbuhan month-over-month (MoM) dan year-over-year (YoY) "
+            + "untuk setiap bulan dalam rentang, dalam satu panggilan. Filter: month_from dan month_to (opsional, format Oct-24; "
+            + "default seluruh rentang data), pillar, product_type, brand_id, merchant_name.")
+    public Map<String, Object> get_growth_series(
+            String month_from,         // Optional (e.g., "Oct-24")
+            String month_to,           // Optional (e.g., "Sep-25")
+            String pillar,             // Optional
+            String product_type,       // Optional
+            String brand_id,           // Optional
+            String merchant_name       // Optional
+    ) {
+        ToolResultCache.Key key = ToolResultCache.Key.of("get_growth_series")
+                .month(null).filter(pillar).filter(product_type).filter(brand_id).merchant(merchant_name).build();
+        // Satu agregasi per bulan untuk seluruh data; MoM/YoY dihitung dari hasil ini tanpa filter ulang.
+        // Bulan yang ada di data tetapi tidak cocok dengan filter tetap disertakan dengan nilai 0.
+        TreeMap<YearMonth, Aggregate> series = cachedQuery(key, data -> {
+            TreeMap<YearMonth, Aggregate> byMonth = new TreeMap<>();
+            for (YearMonth month : data.months()) {
+                byMonth.put(month, Aggregate.ZERO);
+            }
+            data.summarizeBy(Dimension.MONTH, null, pillar, product_type, brand_id, merchant_name).forEach((label, aggregate) -> {
+                YearMonth month = Months.parseOrNull(label);
+                if (month != null) {
+                    byMonth.merge(month, aggregate, Aggregate::plus);
+                }
+            });
+            return byMonth;
+        });
+
+        YearMonth from = (month_from == null || month_from.isBlank())
+                ? (series.isEmpty() ? null : series.firstKey()) : Months.parse(month_from);
+        YearMonth to = (month_to == null || month_to.isBlank())
+                ? (series.isEmpty() ? null : series.lastKey()) : Months.parse(month_to);
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("month_to (" + month_to + ") tidak boleh sebelum month_from (" + month_from + ").");
+        }
+
+        List<Map<String, Object>> points = new ArrayList<>();
+        for (YearMonth month = from; month != null && !month.isAfter(to); month = month.plusMonths(1)) {
+            double tpv = series.getOrDefault(month, Aggregate.ZERO).tpv();
+            Aggregate previousMonth = series.get(month.minusMonths(1));
+            Aggregate previousYear = series.get(month.minusYears(1));
+
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("month", Months.format(month));
+            point.put("TPV_Value", tpv);
+            point.put("TPT_Value", series.getOrDefault(month, Aggregate.ZERO).sumTpt());
+            // N/A jika bulan pembanding berada di luar rentang data
+            point.put("MoM_Growth_Pct", previousMonth != null ? growthPct(previousMonth.tpv(), tpv) : "N/A");
+            point.put("YoY_Growth_Pct", previousYear != null ? growthPct(previousYear.tpv(), tpv) : "N/A");
+            points.add(point);
+        }
+
+        return Map.of(
+                "metric", "TPV/TPT Growth Series" + (from != null ? " (" + Months.format(from) + " -> " + Months.format(to) + ")" : ""),
+                "filters", Map.of(
+                        "month_from", from != null ? Months.format(from) : "",
+                        "month_to", to != null ? Months.format(to) : "",
+                        "pillar", (pillar != null ? pillar : ""),
+                        "product_type", (product_type != null ? product_type : ""),
+                        "brand_id", (brand_id != null ? brand_id : ""),
+                        "merchant_name", (merchant_name != null ? merchant_name : "")
+                ),
+                "Series", points
+        );
+    }
+
     // =========================
     // Tool: get_merchant_recommendation (Placeholder)
     // =========================
@@ -254,34 +297,30 @@ public class PaymentsAnalyticsToolService {
     ) {
         if (month != null) ensureYyyyMm(month);
 
-        // Catatan: product_type dibuat null di filterData karena kita ingin menghitung mix-nya
-        List<Map<String, Object>> filteredData = filterData(resolveMonth(month), pillar, null, brand_id, merchant_name);
-
+        // Catatan: product_type dibuat null karena kita ingin menghitung mix-nya
         // Agregasi berdasarkan product_type
-        Map<String, List<Map<String, Object>>> dataByProduct = filteredData.stream()
-                .collect(Collectors.groupingBy(entry -> (String) entry.getOrDefault("product_type", "Unknown")));
+        ToolResultCache.Key key = ToolResultCache.Key.of("get_product_mix")
+                .month(resolveMonth(month)).filter(pillar).filter(brand_id).merchant(merchant_name).build();
+        Map<String, Aggregate> dataByProduct = cachedQuery(key,
+                data -> aggregateDataBy(data, Dimension.PRODUCT_TYPE, month, pillar, null, brand_id, merchant_name));
 
-        double totalTpvAll = filteredData.stream()
-                .mapToDouble(entry -> cleanAndParseNumber(entry.get("tpv")))
+        long totalTpvAll = dataByProduct.values().stream()
+                .mapToLong(Aggregate::sumTpv)
                 .sum();
 
         Map<String, Map<String, Object>> mixResult = dataByProduct.entrySet().stream()
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
                         entry -> {
-                            double productTpv = entry.getValue().stream()
-                                    .mapToDouble(e -> cleanAndParseNumber(e.get("tpv")))
-                                    .sum();
-                            double productTpt = entry.getValue().stream()
-                                    .mapToDouble(e -> cleanAndParseNumber(e.get("tpt")))
-                                    .sum();
+                            long productTpv = entry.getValue().sumTpv();
+                            long productTpt = entry.getValue().sumTpt();
 
                             // Hitung kontribusi TPV
-                            String tpvPct = (totalTpvAll > 0) ? String.format("%.2f%%", (productTpv / totalTpvAll) * 100) : "0.00%";
+                            String tpvPct = (totalTpvAll > 0) ? String.format("%.2f%%", ((double) productTpv / totalTpvAll) * 100) : "0.00%";
 
                             return Map.of(
-                                    "TPV_Value", productTpv,
-                                    "TPT_Value", (long) productTpt,
+                                    "TPV_Value", SmireColumnStore.tpvToDouble(productTpv),
+                                    "TPT_Value", productTpt,
                                     "TPV_Contribution_Pct", tpvPct
                             );
                         }
@@ -295,7 +334,7 @@ public class PaymentsAnalyticsToolService {
                         "brand_id", (brand_id != null ? brand_id : ""),
                         "merchant_name", (merchant_name != null ? merchant_name : "")
                 ),
-                "Total_TPV_All", totalTpvAll,
+                "Total_TPV_All", SmireColumnStore.tpvToDouble(totalTpvAll),
                 "Product_Mix", mixResult
         );
     }
@@ -312,27 +351,23 @@ public class PaymentsAnalyticsToolService {
     ) {
         if (month != null) ensureYyyyMm(month);
 
-        // Catatan: pillar dibuat null di filterData karena kita ingin mengelompokkan berdasarkan pillar
-        List<Map<String, Object>> filteredData = filterData(resolveMonth(month), null, product_type, brand_id, merchant_name);
-
+        // Catatan: pillar dibuat null karena kita ingin mengelompokkan berdasarkan pillar
         // Agregasi berdasarkan pillar
-        Map<String, List<Map<String, Object>>> dataByPillar = filteredData.stream()
-                .collect(Collectors.groupingBy(entry -> (String) entry.getOrDefault("pillar", "Unknown")));
+        ToolResultCache.Key key = ToolResultCache.Key.of("get_data_by_pillar")
+                .month(resolveMonth(month)).filter(brand_id).filter(product_type).merchant(merchant_name).build();
+        Map<String, Aggregate> dataByPillar = cachedQuery(key,
+                data -> aggregateDataBy(data, Dimension.PILLAR, month, null, product_type, brand_id, merchant_name));
 
         Map<String, Map<String, Object>> result = dataByPillar.entrySet().stream()
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
                         entry -> {
-                            double pillarTpv = entry.getValue().stream()
-                                    .mapToDouble(e -> cleanAndParseNumber(e.get("tpv")))
-                                    .sum();
-                            double pillarTpt = entry.getValue().stream()
-                                    .mapToDouble(e -> cleanAndParseNumber(e.get("tpt")))
-                                    .sum();
+                            double pillarTpv = entry.getValue().tpv();
+                            long pillarTpt = entry.getValue().sumTpt();
 
                             return Map.of(
                                     "TPV_Value", pillarTpv,
-                                    "TPT_Value", (long) pillarTpt
+                                    "TPT_Value", pillarTpt
                             );
                         }
                 ));
@@ -361,27 +396,23 @@ public class PaymentsAnalyticsToolService {
     ) {
         if (month != null) ensureYyyyMm(month);
 
-        // Catatan: product_type dibuat null di filterData karena kita ingin mengelompokkan berdasarkan product_type
-        List<Map<String, Object>> filteredData = filterData(resolveMonth(month), pillar, null, brand_id, merchant_name);
-
+        // Catatan: product_type dibuat null karena kita ingin mengelompokkan berdasarkan product_type
         // Agregasi berdasarkan product_type
-        Map<String, List<Map<String, Object>>> dataByProductType = filteredData.stream()
-                .collect(Collectors.groupingBy(entry -> (String) entry.getOrDefault("product_type", "Unknown")));
+        ToolResultCache.Key key = ToolResultCache.Key.of("get_data_by_product_type")
+                .month(resolveMonth(month)).filter(pillar).filter(brand_id).merchant(merchant_name).build();
+        Map<String, Aggregate> dataByProductType = cachedQuery(key,
+                data -> aggregateDataBy(data, Dimension.PRODUCT_TYPE, month, pillar, null, brand_id, merchant_name));
 
         Map<String, Map<String, Object>> result = dataByProductType.entrySet().stream()
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
                         entry -> {
-                            double productTpv = entry.getValue().stream()
-                                    .mapToDouble(e -> cleanAndParseNumber(e.get("tpv")))
-                                    .sum();
-                            double productTpt = entry.getValue().stream()
-                                    .mapToDouble(e -> cleanAndParseNumber(e.get("tpt")))
-                                    .sum();
+                            double productTpv = entry.getValue().tpv();
+                            long productTpt = entry.getValue().sumTpt();
 
                             return Map.of(
                                     "TPV_Value", productTpv,
-                                    "TPT_Value", (long) productTpt
+                                    "TPT_Value", productTpt
                             );
                         }
                 ));
@@ -397,4 +428,204 @@ public class PaymentsAnalyticsToolService {
                 "Data_By_Product_Type", result
         );
     }
-}
\ No newline at end of file
+
+    // =========================
+    // Tool: get_grouped_metrics
+    // =========================
+    @Tool(description = "Pivot/grouping umum: menghitung metrik TPV/TPT per kombinasi dimensi dalam satu panggilan. "
+            + "group_by: daftar dimensi dipisah koma dari month, pillar, product_type, brand_id, merchant_name (boleh kosong untuk total). "
+            + "metrics: daftar dipisah koma dari tpv, tpt, count, min_tpv, max_tpv (default tpv,tpt). "
+            + "Filter opsional: month (format Oct-24), pillar, product_type, brand_id, merchant_name. "
+            + "limit: jumlah grup maksimum yang dikembalikan (default 500).")
+    public Map<String, Object> get_grouped_metrics(
+            String group_by,          // e.g., "month,product_type"
+            String metrics,           // Optional, e.g., "tpv,tpt,count"
+            String month,             // Optional (e.g., "Oct-24")
+            String pillar,            // Optional
+            String product_type,      // Optional
+            String brand_id,          // Optional
+            String merchant_name,     // Optional
+            Integer limit             // Optional
+    ) {
+        List<Dimension> dimensions = parseGroupBy(group_by);
+        List<String> selectedMetrics = parseMetrics(metrics);
+        int maxGroups = (limit != null && limit > 0) ? limit : DEFAULT_GROUP_LIMIT;
+        if (month != null) ensureYyyyMm(month);
+
+        ToolResultCache.Key key = ToolResultCache.Key.of("get_grouped_metrics")
+                .filter(dimensions.toString()).month(resolveMonth(month)).filter(pillar).filter(product_type).filter(brand_id).merchant(merchant_name).build();
+        Map<List<String>, Aggregate> grouped = cachedQuery(key,
+                data -> data.summarizeBy(dimensions, resolveMonth(month), pillar, product_type, brand_id, merchant_name));
+
+        List<Map<String, Object>> groups = new ArrayList<>();
+        for (Map.Entry<List<String>, Aggregate> entry : grouped.entrySet()) {
+            if (groups.size() == maxGroups) {
+                break;
+            }
+            Map<String, Object> group = new LinkedHashMap<>();
+            for (int i = 0; i < dimensions.size(); i++) {
+                group.put(dimensions.get(i).name().toLowerCase(Locale.ROOT), entry.getKey().get(i));
+            }
+            Aggregate aggregate = entry.getValue();
+            for (String metric : selectedMetrics) {
+                switch (metric) {
+                    case "tpv" -> group.put("TPV_Value", aggregate.tpv());
+                    case "tpt" -> group.put("TPT_Value", aggregate.sumTpt());
+                    case "count" -> group.put("Row_Count", aggregate.rowCount());
+                    case "min_tpv" -> group.put("Min_TPV", aggregate.tpvMin());
+                    case "max_tpv" -> group.put("Max_TPV", aggregate.tpvMax());
+                    default -> throw new IllegalStateException(metric);
+                }
+            }
+            groups.add(group);
+        }
+
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("month", month != null ? resolveMonth(month) : "");
+        filters.put("pillar", pillar != null ? pillar : "");
+        filters.put("product_type", product_type != null ? product_type : "");
+        filters.put("brand_id", brand_id != null ? brand_id : "");
+        filters.put("merchant_name", merchant_name != null ? merchant_name : "");
+
+        return Map.of(
+                "metric", "Grouped Metrics by " + (dimensions.isEmpty() ? "total" : group_by.trim()),
+                "group_by", dimensions.stream().map(d -> d.name().toLowerCase(Locale.ROOT)).toList(),
+                "metrics", selectedMetrics,
+                "filters", filters,
+                "Group_Count", grouped.size(),
+                "Truncated", grouped.size() > groups.size(),
+                "Groups", groups
+        );
+    }
+
+    // =========================
+    // Tool: get_top_merchants
+    // =========================
+    @Tool(description = "Mengembalikan N merchant teratas atau terbawah pada rentang bulan tertentu. "
+            + "Filter: month_from (Wajib, format Oct-24), month_to (opsional, default sama dengan month_from), pillar, product_type. "
+            + "rank_by: tpv (default), tpt, atau growth (pertumbuhan TPV month_to terhadap month_from). "
+            + "order: top (default) atau bottom. n: jumlah merchant (default 10). "
+            + "group_by: merchant_name (default) atau brand_id.")
+    public Map<String, Object> get_top_merchants(
+            String month_from,        // Wajib (e.g., "Oct-24")
+            String month_to,          // Optional (e.g., "Aug-25")
+            String rank_by,           // Optional: tpv | tpt | growth
+            String order,             // Optional: top | bottom
+            Integer n,                // Optional
+            String group_by,          // Optional: merchant_name | brand_id
+            String pillar,            // Optional
+            String product_type       // Optional
+    ) {
+        YearMonth from = Months.parse(month_from);
+        YearMonth to = (month_to == null || month_to.isBlank()) ? from : Months.parse(month_to);
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("month_to (" + month_to + ") tidak boleh sebelum month_from (" + month_from + ").");
+        }
+        Ranking ranking = parseOption("rank_by", rank_by, Ranking.TPV, Ranking.class);
+        boolean bottom = "bottom".equalsIgnoreCase(order == null ? "" : order.trim());
+        if (!bottom && order != null && !order.isBlank() && !"top".equalsIgnoreCase(order.trim())) {
+            throw new IllegalArgumentException("order tidak dikenal: '" + order + "'. Pilihan: top, bottom.");
+        }
+        Dimension dimension = parseOption("group_by", group_by, Dimension.MERCHANT_NAME, Dimension.class);
+        if (dimension != Dimension.MERCHANT_NAME && dimension != Dimension.BRAND_ID) {
+            throw new IllegalArgumentException("group_by untuk ranking hanya boleh merchant_name atau brand_id.");
+        }
+        int limit = (n != null && n > 0) ? n : DEFAULT_TOP_N;
+
+        // Setiap bulan dalam rentang didaftarkan agar append ke salah satunya membuang hasil ranking ini dari cache
+        ToolResultCache.Builder keyBuilder = ToolResultCache.Key.of("get_top_merchants");
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            keyBuilder.month(Months.format(month));
+        }
+        ToolResultCache.Key key = keyBuilder.filter(ranking.name()).filter(bottom ? "bottom" : "top")
+                .filter(Integer.toString(limit)).filter(dimension.name()).filter(pillar).filter(product_type).build();
+        List<RankedGroup> ranked = cachedQuery(key,
+                data -> data.rank(dimension, from, to, pillar, product_type, ranking, limit, bottom));
+
+        String keyName = dimension.name().toLowerCase(Locale.ROOT);
+        List<Map<String, Object>> merchants = new ArrayList<>();
+        for (RankedGroup group : ranked) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("Rank", merchants.size() + 1);
+            row.put(keyName, group.key());
+            row.put("TPV_Value", group.total().tpv());
+            row.put("TPT_Value", group.total().sumTpt());
+            if (ranking == Ranking.GROWTH) {
+                row.put("TPV_A", group.first().tpv());
+                row.put("TPV_B", group.last().tpv());
+                row.put("TpvGrowthPct", String.format("%.2f%%", group.score()));
+            }
+            merchants.add(row);
+        }
+
+        return Map.of(
+                "metric", (bottom ? "Bottom " : "Top ") + limit + " by " + ranking.name().toLowerCase(Locale.ROOT)
+                        + " (" + Months.format(from) + " -> " + Months.format(to) + ")",
+                "filters", Map.of(
+                        "month_from", Months.format(from),
+                        "month_to", Months.format(to),
+                        "pillar", (pillar != null ? pillar : ""),
+                        "product_type", (product_type != null ? product_type : "")
+                ),
+                "Merchants", merchants
+        );
+    }
+
+    // Utility untuk membaca opsi enum (case-insensitive); null/kosong berarti nilai default
+    private static <E extends Enum<E>> E parseOption(String name, String value, E defaultValue, Class<E> type) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(name + " tidak dikenal: '" + value + "'. Pilihan: "
+                    + Arrays.stream(type.getEnumConstants()).map(c -> c.name().toLowerCase(Locale.ROOT)).collect(Collectors.joining(", ")) + ".");
+        }
+    }
+
+    // Utility untuk membaca daftar dimensi group_by (dipisah koma, tanpa duplikat)
+    private List<Dimension> parseGroupBy(String groupBy) {
+        List<Dimension> dimensions = new ArrayList<>();
+        if (groupBy == null || groupBy.isBlank()) {
+            return dimensions;
+        }
+        for (String name : groupBy.split(",")) {
+            String normalized = name.trim().toUpperCase(Locale.ROOT);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            Dimension dimension;
+            try {
+                dimension = Dimension.valueOf(normalized);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Dimensi group_by tidak dikenal: '" + name.trim()
+                        + "'. Pilihan: month, pillar, product_type, brand_id, merchant_name.");
+            }
+            if (!dimensions.contains(dimension)) {
+                dimensions.add(dimension);
+            }
+        }
+        return dimensions;
+    }
+
+    // Utility untuk membaca daftar metrik (dipisah koma); default tpv dan tpt
+    private List<String> parseMetrics(String metrics) {
+        if (metrics == null || metrics.isBlank()) {
+            return List.of("tpv", "tpt");
+        }
+        List<String> selected = new ArrayList<>();
+        for (String name : metrics.split(",")) {
+            String normalized = name.trim().toLowerCase(Locale.ROOT);
+            if (normalized.isEmpty() || selected.contains(normalized)) {
+                continue;
+            }
+            if (!SUPPORTED_METRICS.contains(normalized)) {
+                throw new IllegalArgumentException("Metrik tidak dikenal: '" + name.trim()
+                        + "'. Pilihan: " + String.join(", ", SUPPORTED_METRICS) + ".");
+            }
+            selected.add(normalized);
+        }
+        return selected.isEmpty() ? List.of("tpv", "tpt") : selected;
+    }
+}
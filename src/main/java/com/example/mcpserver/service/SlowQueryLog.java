@@ -0,0 +1,126 @@
+package com.example.mcpserver.service;
+
+import com.example.mcpserver.store.QueryStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log query lambat: setiap pemanggilan tool yang melebihi {@code smire.slow-query.threshold-ms} dicatat ke log
+ * beserta argumen, rencana eksekusi (cube / bitmap index / scan penuh, partisi dibaca vs dipangkas), baris yang
+ * dibaca / cocok, cache hit/miss, dan waktu dalam nanodetik. Entri terakhir disimpan di ring buffer berukuran
+ * {@code smire.slow-query.capacity} dan dapat dibaca lewat {@code /actuator/slowqueries}.
+ */
+@Service
+public class SlowQueryLog {
+
+    // Argumen yang lebih panjang dipotong agar satu entri tidak membengkak
+    private static final int MAX_ARGUMENTS_LENGTH = 1000;
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final SlowQuery[] entries;
+    private int next;
+    private long recorded;
+
+    @Autowired
+    public SlowQueryLog(@Value("${smire.slow-query.enabled:true}") boolean enabled,
+                        @Value("${smire.slow-query.threshold-ms:500}") long thresholdMs,
+                        @Value("${smire.slow-query.capacity:100}") int capacity) {
+        this.enabled = enabled && capacity > 0;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, thresholdMs));
+        this.entries = new SlowQuery[Math.max(1, capacity)];
+    }
+
+    /**
+     * Satu pemanggilan tool yang melebihi threshold.
+     */
+    public record SlowQuery(Instant timestamp, String tool, String arguments, String outcome, long elapsedNanos,
+                            String plan, int partitionsScanned, int partitionsPruned, long rowsScanned,
+                            long rowsMatched, String cache) {
+
+        Map<String, Object> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("Timestamp", timestamp.toString());
+            result.put("Tool", tool);
+            result.put("Arguments", arguments);
+            result.put("Outcome", outcome);
+            result.put("Elapsed_Nanos", elapsedNanos);
+            result.put("Elapsed_Ms", elapsedNanos / 1_000_000.0);
+            result.put("Plan", plan);
+            result.put("Partitions_Scanned", partitionsScanned);
+            result.put("Partitions_Pruned", partitionsPruned);
+            result.put("Rows_Scanned", rowsScanned);
+            result.put("Rows_Matched", rowsMatched);
+            result.put("Cache", cache);
+            return result;
+        }
+    }
+
+    /**
+     * Dipanggil setelah setiap pemanggilan tool; hanya yang melebihi threshold yang dicatat.
+     */
+    public void record(String tool, String arguments, String outcome, long elapsedNanos, QueryStats stats) {
+        if (!enabled || elapsedNanos < thresholdNanos) {
+            return;
+        }
+        String args = arguments == null ? "" : arguments.length() > MAX_ARGUMENTS_LENGTH
+                ? arguments.substring(0, MAX_ARGUMENTS_LENGTH) + "..." : arguments;
+        SlowQuery entry = new SlowQuery(Instant.now(), tool, args, outcome, elapsedNanos, stats.plan(),
+                stats.partitionsScanned(), stats.partitionsPruned(), stats.rowsScanned(), stats.rowsMatched(),
+                stats.cache());
+        synchronized (this) {
+            entries[next] = entry;
+            next = (next + 1) % entries.length;
+            recorded++;
+        }
+        System.err.println("PERINGATAN: Query lambat tool=" + tool + " elapsed_ms=" + entry.elapsedNanos() / 1_000_000.0
+                + " outcome=" + outcome + " plan=[" + entry.plan() + "] rows_scanned=" + entry.rowsScanned()
+                + " rows_matched=" + entry.rowsMatched() + " cache=" + entry.cache() + " args=" + args);
+    }
+
+    // Entri di ring buffer, terbaru dulu
+    public synchronized List<SlowQuery> entries() {
+        List<SlowQuery> result = new ArrayList<>(entries.length);
+        for (int i = 1; i <= entries.length; i++) {
+            SlowQuery entry = entries[(next - i + entries.length) % entries.length];
+            if (entry == null) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * Ringkasan untuk endpoint actuator: konfigurasi, total yang pernah dicatat, dan entri terbaru dulu.
+     */
+    public Map<String, Object> report() {
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (SlowQuery entry : entries()) {
+            queries.add(entry.toMap());
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("Enabled", enabled);
+        result.put("Threshold_Ms", TimeUnit.NANOSECONDS.toMillis(thresholdNanos));
+        result.put("Capacity", entries.length);
+        synchronized (this) {
+            result.put("Total_Recorded", recorded);
+        }
+        result.put("Queries", queries);
+        return result;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(entries, null);
+        next = 0;
+    }
+}
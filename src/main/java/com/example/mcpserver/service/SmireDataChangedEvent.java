@@ -0,0 +1,18 @@
+package com.example.mcpserver.service;
+
+import java.util.Set;
+
+/**
+ * Event yang dipublikasikan setiap kali dataset SMIRE aktif berganti.
+ * Untuk reload penuh semua hasil turunan harus dibuang; untuk append cukup yang bergantung pada {@code affectedMonths}.
+ */
+public record SmireDataChangedEvent(boolean fullReload, Set<String> affectedMonths) {
+
+    public static SmireDataChangedEvent reloaded() {
+        return new SmireDataChangedEvent(true, Set.of());
+    }
+
+    public static SmireDataChangedEvent appended(Set<String> affectedMonths) {
+        return new SmireDataChangedEvent(false, Set.copyOf(affectedMonths));
+    }
+}
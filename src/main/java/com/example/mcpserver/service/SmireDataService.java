@@ -0,0 +1,630 @@
+package com.example.mcpserver.service;
+
+import com.example.mcpserver.store.ParallelScan;
+import com.example.mcpserver.store.SmireColumnStore;
+import com.example.mcpserver.store.SmireJsonLoader;
+import com.example.mcpserver.store.SmirePartitionedStore;
+import com.example.mcpserver.store.SmireSnapshot;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Pemilik dataset SMIRE yang sedang aktif.
+ * Dataset dimuat sekali saat startup lalu dapat dimuat ulang di background (manual atau lewat file watcher)
+ * dan ditukar secara atomik; pemanggil yang sedang berjalan tetap memakai store lama yang sudah mereka pegang.
+ * Baris bulan baru dapat ditambahkan secara inkremental lewat file delta (JSON/NDJSON) di {@code smire.data.delta-dir}
+ * atau lewat {@link #appendRows}; file delta diterapkan ulang di atas data dasar setiap kali startup/reload.
+ * Setiap pergantian dataset dipublikasikan sebagai {@link SmireDataChangedEvent}.
+ * Dataset dipartisi per bulan; dengan snapshot aktif partisi dimuat secara lazy dan, jika {@code smire.partition.max-resident}
+ * diset, partisi yang jarang dipakai dilepas dari memori dan dibaca ulang dari file snapshotnya saat dibutuhkan.
+ */
+@Service
+public class SmireDataService {
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final String dataLocation;
+
+    private final boolean snapshotEnabled;
+    private final Path snapshotPath;
+    // Kolom disimpan off-heap (mmap atas file snapshot) agar tidak membebani GC
+    private final boolean offHeap;
+    // Batas partisi bulan yang dimuat di memori bersamaan (0 = tanpa batas)
+    private final int maxResidentPartitions;
+    // Scan agregasi paralel di ForkJoinPool khusus untuk partisi besar
+    private final ParallelScan parallelScan;
+
+    private final boolean watchEnabled;
+    private final long reloadDebounceMs;
+    // Direktori file delta; null jika append lewat file tidak diaktifkan
+    private final Path deltaDir;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    // File delta yang sudah diterapkan pada store aktif
+    private final Set<Path> appliedDeltas = ConcurrentHashMap.newKeySet();
+
+    // Referensi copy-on-write ke store aktif
+    private final AtomicReference<SmirePartitionedStore> current = new AtomicReference<>();
+
+    // Reload dijalankan berurutan di satu thread background
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "smire-data-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private WatchService watchService;
+
+    @Autowired
+    public SmireDataService(ResourceLoader resourceLoader, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                            @Value("${smire.data.location:classpath:data/data_smire_final.json}") String dataLocation,
+                            @Value("${smire.snapshot.enabled:true}") boolean snapshotEnabled,
+                            @Value("${smire.snapshot.path:}") String snapshotPath,
+                            @Value("${smire.store.off-heap:false}") boolean offHeap,
+                            @Value("${smire.partition.max-resident:0}") int maxResidentPartitions,
+                            @Value("${smire.scan.parallelism:0}") int scanParallelism,
+                            @Value("${smire.scan.parallel-threshold:500000}") int scanParallelThreshold,
+                            @Value("${smire.data.watch:true}") boolean watchEnabled,
+                            @Value("${smire.data.reload-debounce-ms:2000}") long reloadDebounceMs,
+                            @Value("${smire.data.delta-dir:}") String deltaDir) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.deltaDir = deltaDir.isBlank() ? null : Path.of(deltaDir).toAbsolutePath();
+        this.dataLocation = dataLocation;
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotPath = snapshotPath.isBlank() ? defaultSnapshotPath(resourceLoader.getResource(dataLocation))
+                : Path.of(snapshotPath);
+        this.offHeap = offHeap;
+        this.maxResidentPartitions = maxResidentPartitions;
+        this.parallelScan = ParallelScan.create(scanParallelism, scanParallelThreshold);
+        System.out.println("INFO: kernel agregasi " + SmireColumnStore.aggregationKernel()
+                + ", paralelisme scan " + parallelScan.parallelism());
+        this.watchEnabled = watchEnabled;
+        this.reloadDebounceMs = reloadDebounceMs;
+        if (offHeap && !snapshotEnabled) {
+            System.err.println("PERINGATAN: smire.store.off-heap membutuhkan smire.snapshot.enabled=true; kolom tetap disimpan di heap.");
+        }
+        if (maxResidentPartitions > 0 && !snapshotEnabled) {
+            System.err.println("PERINGATAN: smire.partition.max-resident membutuhkan smire.snapshot.enabled=true; semua partisi tetap di memori.");
+        }
+
+        SmirePartitionedStore initial;
+        DatasetLoadEvent event = loadEvent();
+        try {
+            List<Path> deltas = new ArrayList<>();
+            initial = applyDeltas(loadSmireData().withScan(parallelScan), deltas);
+            appliedDeltas.addAll(deltas);
+            commit(event, "startup", dataLocation, initial, true);
+        } catch (IOException e) {
+            // Error ini akan menangkap jika file tidak ada atau gagal dibaca/parse
+            System.err.println("Gagal memuat " + dataLocation + ": " + e.getMessage());
+            initial = SmirePartitionedStore.empty();
+            commit(event, "startup", dataLocation, initial, false);
+        }
+        this.current.set(initial);
+
+        if (initial.isEmpty()) {
+            System.err.println("PERINGATAN: " + dataLocation + " gagal dimuat atau kosong. Tools akan mengembalikan hasil placeholder.");
+        } else {
+            // Log total baris
+            System.out.println("INFO: " + dataLocation + " berhasil dimuat. Total baris: " + initial.rowCount()
+                    + " (" + initial.partitionCount() + " partisi bulan)");
+        }
+    }
+
+    /**
+     * Store yang sedang aktif. Pemanggil sebaiknya mengambilnya sekali per request agar konsisten.
+     */
+    public SmirePartitionedStore current() {
+        return current.get();
+    }
+
+    /**
+     * Memuat ulang dataset di background lalu menukarnya secara atomik.
+     * Jika gagal, store lama tetap dipakai.
+     */
+    public void reload() {
+        reloadExecutor.execute(() -> {
+            DatasetLoadEvent event = loadEvent();
+            try {
+                long start = System.nanoTime();
+                SmirePartitionedStore base = loadSmireData().withScan(parallelScan);
+                if (base.isEmpty()) {
+                    System.err.println("PERINGATAN: hasil reload " + dataLocation + " kosong; dataset lama tetap dipakai.");
+                    commit(event, "reload", dataLocation, base, false);
+                    return;
+                }
+                // Data dasar baru: semua file delta diterapkan ulang dari awal
+                List<Path> deltas = new ArrayList<>();
+                SmirePartitionedStore reloaded = applyDeltas(base, deltas);
+                current.set(reloaded);
+                appliedDeltas.clear();
+                appliedDeltas.addAll(deltas);
+                eventPublisher.publishEvent(SmireDataChangedEvent.reloaded());
+                commit(event, "reload", dataLocation, reloaded, true);
+                System.out.println("INFO: dataset dimuat ulang dari " + dataLocation + ". Total baris: " + reloaded.rowCount()
+                        + " (" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms)");
+            } catch (IOException | RuntimeException e) {
+                commit(event, "reload", dataLocation, null, false);
+                System.err.println("PERINGATAN: gagal memuat ulang " + dataLocation + ", dataset lama tetap dipakai: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Hasil append: jumlah baris baru, bulan yang terdampak, dan total baris store setelah append.
+     */
+    public record AppendResult(int appendedRows, Set<String> affectedMonths, int totalRows) {
+    }
+
+    /**
+     * Menambah batch baris (array JSON atau NDJSON) ke dataset aktif secara inkremental.
+     * Batch di-parse dulu; batch yang tidak valid ditolak dengan IOException tanpa mengubah dataset maupun direktori
+     * delta. Jika {@code smire.data.delta-dir} diset, batch yang valid disimpan sebagai file delta agar tetap ada
+     * setelah restart/reload. Dijalankan berurutan dengan reload di thread background.
+     */
+    public AppendResult appendRows(byte[] body) throws IOException {
+        BufferedRows rows = new BufferedRows();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            reportMalformed("batch append", SmireJsonLoader.readRows(parser, rows));
+        }
+        Callable<AppendResult> task = () -> append(rows, body);
+        try {
+            return reloadExecutor.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Append dibatalkan", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Menerapkan file delta baru (yang belum pernah diterapkan) di direktori delta
+    private void applyPendingDeltasInBackground() {
+        reloadExecutor.execute(() -> {
+            try {
+                applyPendingDeltas(listDeltaFiles());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("PERINGATAN: gagal menerapkan file delta: " + e.getMessage());
+            }
+        });
+    }
+
+    private AppendResult applyPendingDeltas(List<Path> candidates) throws IOException {
+        DatasetLoadEvent event = loadEvent();
+        SmirePartitionedStore base = current.get();
+        SmirePartitionedStore.Appender appender = base.appender();
+        List<Path> applied = new ArrayList<>();
+        for (Path file : candidates) {
+            if (!appliedDeltas.contains(file)) {
+                BufferedRows rows = readDeltaFile(file);
+                if (rows != null) {
+                    rows.replay(appender);
+                    applied.add(file);
+                }
+            }
+        }
+        AppendResult result = publishAppend(base, appender, applied);
+        commit(event, "append", String.valueOf(deltaDir), current.get(), true);
+        return result;
+    }
+
+    private AppendResult append(BufferedRows rows, byte[] body) throws IOException {
+        DatasetLoadEvent event = loadEvent();
+        // Disimpan hanya setelah batch terbukti bisa di-parse, agar file delta rusak tidak pernah tertulis
+        List<Path> files = deltaDir != null ? List.of(writeDeltaFile(body)) : List.of();
+        SmirePartitionedStore base = current.get();
+        SmirePartitionedStore.Appender appender = base.appender();
+        rows.replay(appender);
+        AppendResult result = publishAppend(base, appender, files);
+        commit(event, "append", deltaDir != null ? String.valueOf(deltaDir) : "batch append", current.get(), true);
+        return result;
+    }
+
+    private AppendResult publishAppend(SmirePartitionedStore base, SmirePartitionedStore.Appender appender, List<Path> appliedFiles) {
+        if (appender.size() == 0) {
+            appliedDeltas.addAll(appliedFiles);
+            return new AppendResult(0, Set.of(), base.rowCount());
+        }
+        SmirePartitionedStore appended = appender.build();
+        Set<String> months = appender.affectedMonths();
+        current.set(appended);
+        appliedDeltas.addAll(appliedFiles);
+        eventPublisher.publishEvent(SmireDataChangedEvent.appended(months));
+        System.out.println("INFO: " + appender.size() + " baris ditambahkan untuk bulan " + months
+                + ". Total baris: " + appended.rowCount());
+        return new AppendResult(appender.size(), months, appended.rowCount());
+    }
+
+    // =========================
+    // File delta
+    // =========================
+
+    private List<Path> listDeltaFiles() throws IOException {
+        if (deltaDir == null || !Files.isDirectory(deltaDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(deltaDir)) {
+            return files.filter(SmireDataService::isDeltaFile).sorted().toList();
+        }
+    }
+
+    private static boolean isDeltaFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".ndjson") || name.endsWith(".json");
+    }
+
+    /**
+     * Menerapkan semua file delta di atas {@code base}; file yang berhasil diterapkan ditambahkan ke {@code applied}.
+     * File yang tidak terbaca dilewati sehingga data dasar dan delta lain tetap dimuat.
+     */
+    private SmirePartitionedStore applyDeltas(SmirePartitionedStore base, List<Path> applied) {
+        List<Path> files;
+        try {
+            files = listDeltaFiles();
+        } catch (IOException e) {
+            System.err.println("PERINGATAN: direktori delta " + deltaDir + " tidak bisa dibaca, file delta dilewati: " + e.getMessage());
+            return base;
+        }
+        if (files.isEmpty()) {
+            return base;
+        }
+        DatasetLoadEvent event = loadEvent();
+        SmirePartitionedStore.Appender appender = base.appender();
+        for (Path file : files) {
+            BufferedRows rows = readDeltaFile(file);
+            if (rows != null) {
+                rows.replay(appender);
+                applied.add(file);
+            }
+        }
+        System.out.println("INFO: " + applied.size() + " dari " + files.size() + " file delta diterapkan (" + appender.size() + " baris).");
+        SmirePartitionedStore result = appender.build();
+        commit(event, "deltas", String.valueOf(deltaDir), result, true);
+        return result;
+    }
+
+    /**
+     * Mem-parse satu file delta seluruhnya sebelum barisnya diterapkan, agar file yang rusak di tengah jalan
+     * tidak meninggalkan sebagian baris. File yang gagal di-parse dikarantina (diganti nama menjadi {@code .bad});
+     * file yang gagal dibuka dilewati dan dicoba lagi pada reload berikutnya.
+     *
+     * @return baris file tersebut, atau null jika file dilewati
+     */
+    private BufferedRows readDeltaFile(Path file) {
+        InputStream is;
+        try {
+            is = Files.newInputStream(file);
+        } catch (IOException e) {
+            System.err.println("PERINGATAN: file delta " + file + " tidak bisa dibuka, dilewati: " + e.getMessage());
+            return null;
+        }
+        try (is; JsonParser parser = objectMapper.getFactory().createParser(is)) {
+            BufferedRows rows = new BufferedRows();
+            reportMalformed(file.toString(), SmireJsonLoader.readRows(parser, rows));
+            return rows;
+        } catch (IOException | RuntimeException e) {
+            quarantine(file, e);
+            return null;
+        }
+    }
+
+    private static void quarantine(Path file, Exception cause) {
+        Path bad = file.resolveSibling(file.getFileName() + ".bad");
+        try {
+            Files.move(file, bad, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("PERINGATAN: file delta " + file + " rusak dan dipindah ke " + bad + ": " + cause.getMessage());
+        } catch (IOException e) {
+            System.err.println("PERINGATAN: file delta " + file + " rusak dan dilewati (gagal dipindah ke " + bad + ": "
+                    + e.getMessage() + "): " + cause.getMessage());
+        }
+    }
+
+    // Batch disimpan dengan nama berurutan waktu; ditulis ke file sementara lalu di-rename agar tidak terbaca setengah jadi
+    private Path writeDeltaFile(byte[] body) throws IOException {
+        Files.createDirectories(deltaDir);
+        Path file = deltaDir.resolve("delta-" + System.currentTimeMillis() + "-" + UUID.randomUUID() + ".json");
+        Path tmp = deltaDir.resolve(file.getFileName() + ".tmp");
+        Files.write(tmp, body);
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    /**
+     * Baris hasil parse yang ditahan sampai seluruh input terbukti valid, lalu diterapkan ke appender sekaligus.
+     */
+    private static final class BufferedRows implements SmireColumnStore.RowSink {
+
+        private record Row(String month, String pillar, String productType, String brandId,
+                           String merchantName, long tpvMinorUnits, long tpt) {
+        }
+
+        private final List<Row> rows = new ArrayList<>();
+
+        @Override
+        public void addRow(String month, String pillar, String productType, String brandId,
+                           String merchantName, long tpvMinorUnits, long tpt) {
+            rows.add(new Row(month, pillar, productType, brandId, merchantName, tpvMinorUnits, tpt));
+        }
+
+        void replay(SmireColumnStore.RowSink sink) {
+            for (Row row : rows) {
+                sink.addRow(row.month(), row.pillar(), row.productType(), row.brandId(),
+                        row.merchantName(), row.tpvMinorUnits(), row.tpt());
+            }
+        }
+    }
+
+    private void reportMalformed(String source, Map<String, Integer> malformedCounts) {
+        // Laporkan jumlah nilai angka yang tidak valid (dihitung sebagai 0)
+        if (!malformedCounts.isEmpty()) {
+            System.err.println("PERINGATAN: nilai angka tidak valid pada " + source + " (dihitung sebagai 0): " + malformedCounts);
+        }
+    }
+
+    // =========================
+    // File watcher
+    // =========================
+
+    @PostConstruct
+    void startWatcher() {
+        if (!watchEnabled) {
+            return;
+        }
+        Path file = null;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            Resource resource = resourceLoader.getResource(dataLocation);
+            // Resource di dalam jar tidak bisa dipantau, tetapi direktori delta tetap bisa
+            if (resource.isFile()) {
+                file = resource.getFile().toPath().toAbsolutePath();
+                file.getParent().register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+            if (deltaDir != null) {
+                Files.createDirectories(deltaDir);
+                deltaDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        } catch (IOException e) {
+            System.err.println("PERINGATAN: file watcher untuk " + dataLocation + " tidak aktif: " + e.getMessage());
+            return;
+        }
+        if (file == null && deltaDir == null) {
+            return;
+        }
+
+        Path dataFile = file;
+        Thread watcher = new Thread(() -> watch(dataFile), "smire-data-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        if (dataFile != null) {
+            System.out.println("INFO: memantau perubahan " + dataFile + " untuk reload otomatis.");
+        }
+        if (deltaDir != null) {
+            System.out.println("INFO: memantau file delta baru di " + deltaDir + ".");
+        }
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        reloadExecutor.shutdownNow();
+        parallelScan.close();
+    }
+
+    private static final int DATA_CHANGED = 1;
+    private static final int DELTA_CHANGED = 2;
+
+    private void watch(Path dataFile) {
+        try {
+            while (true) {
+                int changes = changes(watchService.take(), dataFile);
+                // Debounce: tunggu sampai file tidak berubah lagi selama reloadDebounceMs
+                while (changes != 0) {
+                    WatchKey next = watchService.poll(reloadDebounceMs, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        // Reload penuh sudah ikut menerapkan semua file delta
+                        if ((changes & DATA_CHANGED) != 0) {
+                            reload();
+                        } else {
+                            applyPendingDeltasInBackground();
+                        }
+                        break;
+                    }
+                    changes |= changes(next, dataFile);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Aplikasi berhenti
+        }
+    }
+
+    private int changes(WatchKey key, Path dataFile) {
+        int changes = 0;
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (!(event.context() instanceof Path changed)) {
+                continue;
+            }
+            if (dataFile != null && dataFile.equals(dir.resolve(changed))) {
+                changes |= DATA_CHANGED;
+            } else if (deltaDir != null && deltaDir.equals(dir) && isDeltaFile(changed)) {
+                changes |= DELTA_CHANGED;
+            }
+        }
+        key.reset();
+        return changes;
+    }
+
+    // =========================
+    // Loading
+    // =========================
+
+    // Metode untuk memuat data: dari snapshot biner jika masih valid, selain itu dari JSON
+    // (lalu snapshot ditulis ulang agar boot berikutnya tidak perlu mem-parse JSON)
+    private SmirePartitionedStore loadSmireData() throws IOException {
+        Resource resource = resourceLoader.getResource(dataLocation);
+
+        // Cek apakah resource benar-benar ada (Tambahan Debugging)
+        if (!resource.exists()) {
+            throw new IOException("File " + dataLocation + " tidak ditemukan.");
+        }
+
+        // Sidik jari isi sumber, bukan lastModified: file lain dengan mtime sama tidak boleh memakai snapshot ini
+        long sourceFingerprint = 0L;
+        if (snapshotEnabled) {
+            try (InputStream is = resource.getInputStream()) {
+                sourceFingerprint = SmireSnapshot.fingerprint(is);
+            }
+        }
+        SmirePartitionedStore snapshot = readSnapshot(sourceFingerprint);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        DatasetLoadEvent event = loadEvent();
+        SmirePartitionedStore loaded = parseSmireJson(resource);
+        commit(event, "json_parse", dataLocation, loaded, !loaded.isEmpty());
+        if (writeSnapshot(loaded, sourceFingerprint) && (offHeap || maxResidentPartitions > 0)) {
+            // Buka ulang dari snapshot agar kolom heap hasil parse bisa di-GC dan partisi bisa dilepas dari memori
+            SmirePartitionedStore mapped = readSnapshot(sourceFingerprint);
+            if (mapped != null) {
+                return mapped;
+            }
+        }
+        return loaded;
+    }
+
+    // Path snapshot bawaan bila smire.snapshot.path kosong: ${java.io.tmpdir}/smire/<nama file data>-<hash lokasi>.snapshot,
+    // sehingga lokasi data yang berbeda tidak berbagi snapshot
+    static Path defaultSnapshotPath(Resource resource) {
+        String location;
+        try {
+            location = resource.isFile() ? resource.getFile().getCanonicalPath() : resource.getURL().toString();
+        } catch (IOException e) {
+            location = resource.getDescription();
+        }
+        String fileName = resource.getFilename() == null ? "data" : resource.getFilename();
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return Path.of(System.getProperty("java.io.tmpdir"), "smire",
+                baseName + "-" + String.format("%08x", location.hashCode()) + ".snapshot");
+    }
+
+    // Memuat JSON secara streaming langsung ke partisi bulan (tanpa List<Map> perantara);
+    // tpv/tpt dinormalisasi sekali di sini menjadi long fixed-point
+    private SmirePartitionedStore parseSmireJson(Resource resource) throws IOException {
+        try (InputStream is = resource.getInputStream();
+             JsonParser parser = objectMapper.getFactory().createParser(is)) {
+            SmireJsonLoader.LoadResult result = SmireJsonLoader.load(parser);
+
+            // Cek apakah data kosong (Tambahan Debugging)
+            if (result.store().isEmpty()) {
+                System.err.println("PERINGATAN: " + dataLocation + " ditemukan, tetapi kontennya kosong atau tidak valid.");
+            }
+
+            reportMalformed(dataLocation, result.malformedCounts());
+
+            return result.store();
+        }
+    }
+
+    // Membaca snapshot biner; null jika dinonaktifkan, belum ada, basi, atau rusak
+    private SmirePartitionedStore readSnapshot(long sourceFingerprint) {
+        if (!snapshotEnabled || !Files.exists(snapshotPath)) {
+            return null;
+        }
+        DatasetLoadEvent event = loadEvent();
+        try {
+            SmirePartitionedStore snapshot = SmireSnapshot.openDataset(snapshotPath, sourceFingerprint, offHeap, maxResidentPartitions);
+            commit(event, "snapshot_read", snapshotPath.toString(), snapshot, true);
+            System.out.println("INFO: data dimuat dari snapshot " + snapshotPath + " (" + snapshot.partitionCount() + " partisi, dimuat saat dibutuhkan"
+                    + (offHeap ? ", kolom off-heap" : "") + ")");
+            return snapshot;
+        } catch (IOException e) {
+            commit(event, "snapshot_read", snapshotPath.toString(), null, false);
+            System.out.println("INFO: snapshot " + snapshotPath + " tidak dipakai (" + e.getMessage() + "), memuat ulang dari JSON.");
+            return null;
+        }
+    }
+
+    // Menulis snapshot biner; mengembalikan true jika berhasil
+    private boolean writeSnapshot(SmirePartitionedStore loaded, long sourceFingerprint) {
+        if (!snapshotEnabled || loaded.isEmpty()) {
+            return false;
+        }
+        DatasetLoadEvent event = loadEvent();
+        try {
+            SmireSnapshot.writeDataset(loaded, snapshotPath, sourceFingerprint);
+            commit(event, "snapshot_write", snapshotPath.toString(), loaded, true);
+            System.out.println("INFO: snapshot data ditulis ke " + snapshotPath);
+            return true;
+        } catch (IOException e) {
+            commit(event, "snapshot_write", snapshotPath.toString(), loaded, false);
+            System.err.println("PERINGATAN: gagal menulis snapshot " + snapshotPath + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // =========================
+    // Event JFR
+    // =========================
+
+    private static DatasetLoadEvent loadEvent() {
+        DatasetLoadEvent event = new DatasetLoadEvent();
+        event.begin();
+        return event;
+    }
+
+    // Merekam fase pemuatan (store null jika fase gagal sebelum menghasilkan dataset)
+    private static void commit(DatasetLoadEvent event, String phase, String source, SmirePartitionedStore store,
+                               boolean success) {
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.source = source;
+            event.rows = store == null ? 0 : store.rowCount();
+            event.partitions = store == null ? 0 : store.partitionCount();
+            event.success = success;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.mcpserver.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event JFR untuk satu pemanggilan tool MCP: awal dan akhir eksekusi (start time + durasi event),
+ * dengan ringkasan {@link com.example.mcpserver.store.QueryStats} pemanggilan tersebut.
+ */
+@Name("com.example.mcpserver.ToolExecution")
+@Label("MCP Tool Execution")
+@Category({"SMIRE", "Tools"})
+@Description("Pemanggilan tool MCP dari awal sampai hasil dikembalikan")
+@StackTrace(false)
+final class ToolExecutionEvent extends Event {
+
+    @Label("Tool")
+    String tool;
+
+    @Label("Arguments")
+    String arguments;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Plan")
+    String plan;
+
+    @Label("Rows Scanned")
+    long rowsScanned;
+
+    @Label("Rows Matched")
+    long rowsMatched;
+
+    @Label("Cache")
+    String cache;
+}
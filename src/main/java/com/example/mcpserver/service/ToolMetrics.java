@@ -0,0 +1,191 @@
+package com.example.mcpserver.service;
+
+import com.example.mcpserver.store.QueryStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrik Micrometer untuk setiap pemanggilan tool MCP, dipasang generik dengan membungkus semua ToolCallback
+ * dari sebuah ToolCallbackProvider (tool baru otomatis ikut terukur). Per tool (tag {@code tool}):
+ * <ul>
+ *     <li>{@code smire.tool.latency}: timer dengan histogram dan persentil p50/p95/p99, tag {@code outcome}</li>
+ *     <li>{@code smire.tool.calls} dan {@code smire.tool.errors} (tag {@code exception})</li>
+ *     <li>{@code smire.tool.rows.scanned} / {@code smire.tool.rows.matched}: baris yang dibaca / cocok filter
+ *     (dari {@link QueryStats}; 0 jika hasil dari cache)</li>
+ *     <li>{@code smire.tool.result.size}: panjang hasil tool (karakter JSON)</li>
+ * </ul>
+ * Diekspos lewat Actuator ({@code /actuator/metrics}, {@code /actuator/prometheus}). Pemanggilan yang melebihi
+ * threshold juga diteruskan ke {@link SlowQueryLog}, dan setiap pemanggilan direkam sebagai event JFR
+ * {@code com.example.mcpserver.ToolExecution} saat Flight Recorder aktif.
+ */
+@Service
+public class ToolMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+    private final SlowQueryLog slowQueryLog;
+    private final Map<String, ToolMeters> meters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ToolMetrics(MeterRegistry registry, SlowQueryLog slowQueryLog) {
+        this.registry = registry;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Membungkus semua tool dari {@code provider} dengan pencatatan metrik.
+     */
+    public ToolCallbackProvider instrument(ToolCallbackProvider provider) {
+        ToolCallback[] callbacks = provider.getToolCallbacks();
+        ToolCallback[] instrumented = new ToolCallback[callbacks.length];
+        for (int i = 0; i < callbacks.length; i++) {
+            instrumented[i] = new InstrumentedToolCallback(callbacks[i]);
+        }
+        return ToolCallbackProvider.from(instrumented);
+    }
+
+    private ToolMeters meters(String tool) {
+        return meters.computeIfAbsent(tool, ToolMeters::new);
+    }
+
+    // =========================
+    // Meter per tool
+    // =========================
+
+    private final class ToolMeters {
+        private final String tool;
+        private final Timer success;
+        private final Timer failure;
+        private final Counter calls;
+        private final DistributionSummary rowsScanned;
+        private final DistributionSummary rowsMatched;
+        private final DistributionSummary resultSize;
+        private final Map<String, Counter> errors = new ConcurrentHashMap<>();
+
+        ToolMeters(String tool) {
+            this.tool = tool;
+            this.success = latency("success");
+            this.failure = latency("error");
+            this.calls = Counter.builder("smire.tool.calls")
+                    .description("Jumlah pemanggilan tool MCP")
+                    .tag("tool", tool)
+                    .register(registry);
+            this.rowsScanned = rows("smire.tool.rows.scanned", "Baris yang dibaca per pemanggilan tool");
+            this.rowsMatched = rows("smire.tool.rows.matched", "Baris yang cocok dengan filter per pemanggilan tool");
+            this.resultSize = DistributionSummary.builder("smire.tool.result.size")
+                    .description("Panjang hasil tool (karakter)")
+                    .baseUnit("characters")
+                    .tag("tool", tool)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry);
+        }
+
+        private Timer latency(String outcome) {
+            return Timer.builder("smire.tool.latency")
+                    .description("Latensi pemanggilan tool MCP")
+                    .tag("tool", tool)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        private DistributionSummary rows(String name, String description) {
+            return DistributionSummary.builder(name)
+                    .description(description)
+                    .baseUnit("rows")
+                    .tag("tool", tool)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry);
+        }
+
+        Counter errors(Throwable error) {
+            // ToolExecutionException membungkus exception asli dari method tool
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            return errors.computeIfAbsent(cause.getClass().getSimpleName(), exception -> Counter.builder("smire.tool.errors")
+                    .description("Jumlah pemanggilan tool MCP yang gagal")
+                    .tag("tool", tool)
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+
+    // =========================
+    // ToolCallback terinstrumentasi
+    // =========================
+
+    private final class InstrumentedToolCallback implements ToolCallback {
+        private final ToolCallback delegate;
+        private final ToolMeters meters;
+
+        InstrumentedToolCallback(ToolCallback delegate) {
+            this.delegate = delegate;
+            this.meters = meters(delegate.getToolDefinition().name());
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return delegate.getToolDefinition();
+        }
+
+        @Override
+        public ToolMetadata getToolMetadata() {
+            return delegate.getToolMetadata();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return call(toolInput, null);
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            meters.calls.increment();
+            QueryStats stats = QueryStats.begin();
+            ToolExecutionEvent event = new ToolExecutionEvent();
+            event.begin();
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                String result = toolContext == null ? delegate.call(toolInput) : delegate.call(toolInput, toolContext);
+                success = true;
+                meters.resultSize.record(result == null ? 0 : result.length());
+                return result;
+            } catch (RuntimeException | Error e) {
+                meters.errors(e).increment();
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                stats.end();
+                (success ? meters.success : meters.failure).record(elapsed, TimeUnit.NANOSECONDS);
+                meters.rowsScanned.record(stats.rowsScanned());
+                meters.rowsMatched.record(stats.rowsMatched());
+                slowQueryLog.record(meters.tool, toolInput, success ? "success" : "error", elapsed, stats);
+                if (event.shouldCommit()) {
+                    event.tool = meters.tool;
+                    event.arguments = toolInput;
+                    event.outcome = success ? "success" : "error";
+                    event.plan = stats.plan();
+                    event.rowsScanned = stats.rowsScanned();
+                    event.rowsMatched = stats.rowsMatched();
+                    event.cache = stats.cache();
+                    event.commit();
+                }
+            }
+        }
+    }
+}
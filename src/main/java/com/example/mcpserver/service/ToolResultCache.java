@@ -0,0 +1,159 @@
+package com.example.mcpserver.service;
+
+import com.example.mcpserver.store.QueryStats;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache hasil query tool analytics (Caffeine, eviction W-TinyLFU) dengan ukuran dan TTL yang dapat dikonfigurasi.
+ * Key berisi nama tool + argumen yang dinormalisasi; entri dibuang otomatis saat dataset di-reload
+ * (semua entri) atau saat ada append (hanya entri yang bergantung pada bulan terdampak).
+ */
+@Service
+public class ToolResultCache {
+
+    private final boolean enabled;
+    private final Cache<Key, Object> cache;
+
+    // Naik setiap kali dataset berganti; hasil yang dihitung dari store lama tidak boleh masuk cache
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public ToolResultCache(@Value("${smire.cache.enabled:true}") boolean enabled,
+                           @Value("${smire.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${smire.cache.ttl-ms:600000}") long ttlMs) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Key cache: nama tool, argumen yang sudah dinormalisasi, dan bulan yang dibaca query
+     * ({@code months} null berarti query membaca semua bulan).
+     */
+    public record Key(String tool, List<String> args, Set<String> months) {
+
+        public static Builder of(String tool) {
+            return new Builder(tool);
+        }
+
+        boolean dependsOn(Set<String> affectedMonths) {
+            return months == null || !Collections.disjoint(months, affectedMonths);
+        }
+    }
+
+    public static final class Builder {
+        private final String tool;
+        private final List<String> args = new ArrayList<>();
+        private Set<String> months = new TreeSet<>();
+
+        private Builder(String tool) {
+            this.tool = tool;
+        }
+
+        // Bulan dipakai apa adanya: null (semua bulan) dan "" (tidak cocok dengan apa pun) memberi hasil berbeda
+        public Builder month(String month) {
+            args.add(month);
+            if (month == null) {
+                months = null;
+            } else if (months != null) {
+                months.add(month);
+            }
+            return this;
+        }
+
+        // Filter opsional: null dan "" sama-sama berarti tanpa filter
+        public Builder filter(String value) {
+            args.add(value == null || value.isEmpty() ? null : value);
+            return this;
+        }
+
+        // merchant_name dicocokkan tanpa membedakan huruf besar/kecil
+        public Builder merchant(String merchantName) {
+            return filter(merchantName == null ? null : merchantName.toLowerCase(Locale.ROOT));
+        }
+
+        public Key build() {
+            return new Key(tool, Collections.unmodifiableList(args), months == null ? null : Collections.unmodifiableSet(months));
+        }
+    }
+
+    /**
+     * Mengembalikan hasil dari cache, atau menjalankan {@code query} lalu menyimpan hasilnya.
+     * Hasil yang disimpan dibagi antar pemanggil sehingga tidak boleh diubah.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        Object cached = cache.getIfPresent(key);
+        QueryStats.recordCache(cached != null);
+        if (event.shouldCommit()) {
+            event.tool = key.tool();
+            event.hit = cached != null;
+            event.commit();
+        }
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        long startGeneration = generation.get();
+        T result = query.get();
+        if (result != null && generation.get() == startGeneration) {
+            cache.put(key, result);
+            // Dataset bisa berganti di antara pengecekan dan put; buang lagi agar tidak ada hasil basi
+            if (generation.get() != startGeneration) {
+                cache.invalidate(key);
+            }
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onDataChanged(SmireDataChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.fullReload()) {
+            cache.invalidateAll();
+        } else {
+            cache.asMap().keySet().removeIf(key -> key.dependsOn(event.affectedMonths()));
+        }
+    }
+
+    /**
+     * Statistik hit/miss cache.
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("Enabled", enabled);
+        result.put("Size", cache.estimatedSize());
+        result.put("Hit_Count", stats.hitCount());
+        result.put("Miss_Count", stats.missCount());
+        result.put("Hit_Rate", stats.hitRate());
+        result.put("Eviction_Count", stats.evictionCount());
+        return result;
+    }
+}
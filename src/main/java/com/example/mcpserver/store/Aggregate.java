@@ -0,0 +1,34 @@
+package com.example.mcpserver.store;
+
+/**
+ * Hasil agregasi SUM(tpv), SUM(tpt), jumlah baris serta MIN/MAX(tpv) per baris; tpv dalam satuan terkecil (fixed-point).
+ * Untuk agregat tanpa baris, minTpv dan maxTpv bernilai 0.
+ */
+public record Aggregate(long sumTpv, long sumTpt, long rowCount, long minTpv, long maxTpv) {
+
+    public static final Aggregate ZERO = new Aggregate(0L, 0L, 0L, 0L, 0L);
+
+    // Gabungan dua agregat (mis. hasil dari dua partisi); agregat tanpa baris tidak memengaruhi min/max
+    public Aggregate plus(Aggregate other) {
+        if (other.rowCount == 0) {
+            return this;
+        }
+        if (rowCount == 0) {
+            return other;
+        }
+        return new Aggregate(sumTpv + other.sumTpv, sumTpt + other.sumTpt, rowCount + other.rowCount,
+                Math.min(minTpv, other.minTpv), Math.max(maxTpv, other.maxTpv));
+    }
+
+    public double tpv() {
+        return SmireColumnStore.tpvToDouble(sumTpv);
+    }
+
+    public double tpvMin() {
+        return SmireColumnStore.tpvToDouble(minTpv);
+    }
+
+    public double tpvMax() {
+        return SmireColumnStore.tpvToDouble(maxTpv);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.mcpserver.store;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event JFR untuk satu query agregasi di satu partisi (summarize / summarizeBy), dengan jalur akses yang sama
+ * seperti {@link QueryStats}.
+ */
+@Name("com.example.mcpserver.Aggregation")
+@Label("SMIRE Aggregation")
+@Category({"SMIRE", "Store"})
+@Description("Agregasi SUM(tpv), SUM(tpt) dan COUNT dalam satu partisi")
+@StackTrace(false)
+final class AggregationEvent extends Event {
+
+    @Label("Access")
+    @Description("CUBE, INDEX, atau FULL_SCAN")
+    String access;
+
+    @Label("Group By")
+    String groupBy;
+
+    @Label("Partition Rows")
+    int partitionRows;
+
+    @Label("Rows Scanned")
+    long rowsScanned;
+
+    @Label("Rows Matched")
+    long rowsMatched;
+
+    @Label("Groups")
+    int groups;
+}
@@ -0,0 +1,47 @@
+package com.example.mcpserver.store;
+
+/**
+ * Kernel agregasi SUM(tpv), SUM(tpt), COUNT dan MIN/MAX(tpv) atas baris yang ditandai bitset (hasil filter bitmap).
+ * Implementasi dipilih sekali saat startup lewat {@link #get()}: kernel SIMD ({@code jdk.incubator.vector}) jika modul
+ * tersedia di runtime (JVM dijalankan dengan {@code --add-modules jdk.incubator.vector}) dan tidak dimatikan dengan
+ * {@code -Dsmire.simd.enabled=false}; selain itu kernel skalar.
+ */
+interface AggregationKernel {
+
+    /**
+     * Mengakumulasi baris yang bit-nya diset pada {@code words[fromWord, toWord)} ke slot {@code group};
+     * bit {@code b} dari word {@code w} mewakili baris {@code base + 64 * w + b}.
+     */
+    void accumulate(long[] words, int fromWord, int toWord, int base, LongColumn tpv, LongColumn tpt,
+                    GroupAggregator accumulator, int group);
+
+    // Nama kernel untuk log startup
+    String description();
+
+    static AggregationKernel get() {
+        return Selected.KERNEL;
+    }
+
+    final class Selected {
+        private static final String VECTOR_MODULE = "jdk.incubator.vector";
+        private static final String VECTOR_KERNEL = "com.example.mcpserver.store.VectorAggregationKernel";
+
+        static final AggregationKernel KERNEL = select();
+
+        private Selected() {
+        }
+
+        // Kelas kernel SIMD dimuat secara reflektif agar kernel skalar tetap jalan saat modul incubator tidak ada
+        private static AggregationKernel select() {
+            if (!Boolean.parseBoolean(System.getProperty("smire.simd.enabled", "true"))
+                    || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+                return ScalarAggregationKernel.INSTANCE;
+            }
+            try {
+                return (AggregationKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return ScalarAggregationKernel.INSTANCE;
+            }
+        }
+    }
+}
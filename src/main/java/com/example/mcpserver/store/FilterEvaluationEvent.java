@@ -0,0 +1,33 @@
+package com.example.mcpserver.store;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event JFR untuk evaluasi filter di satu partisi: AND bitmap index dari paling selektif.
+ * Field string hanya diisi jika event benar-benar direkam ({@code shouldCommit}).
+ */
+@Name("com.example.mcpserver.FilterEvaluation")
+@Label("SMIRE Filter Evaluation")
+@Category({"SMIRE", "Store"})
+@Description("AND bitmap index filter dalam satu partisi")
+@StackTrace(false)
+final class FilterEvaluationEvent extends Event {
+
+    @Label("Filters")
+    @Description("Kardinalitas bitmap per filter, mis. product_type=1200 merchant_name=3")
+    String filters;
+
+    @Label("Filter Count")
+    int filterCount;
+
+    @Label("Partition Rows")
+    int partitionRows;
+
+    @Label("Matched Rows")
+    long matchedRows;
+}
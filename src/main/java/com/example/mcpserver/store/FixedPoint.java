@@ -0,0 +1,107 @@
+package com.example.mcpserver.store;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Utilitas angka fixed-point: nilai desimal disimpan sebagai long dalam satuan terkecil
+ * (misalnya 2 digit desimal: "1,000.50" menjadi 100050) sehingga agregasi cukup berupa penjumlahan long.
+ */
+public final class FixedPoint {
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L
+    };
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Mem-parse teks angka (boleh memakai pemisah ribuan koma) menjadi long dengan skala {@code fractionDigits}.
+     * Digit desimal berlebih dibulatkan HALF_UP.
+     *
+     * @throws NumberFormatException jika teks bukan angka yang valid atau nilainya tidak muat di long
+     */
+    public static long parse(String text, int fractionDigits) {
+        String s = text.trim();
+        long scale = POWERS_OF_TEN[fractionDigits];
+        int len = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < len && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+
+        // Jalur cepat: digit dengan koma ribuan, opsional diikuti titik desimal
+        long whole = 0;
+        int digits = 0;
+        for (; i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits >= 17) {
+                    return parseSlow(s, fractionDigits);
+                }
+                whole = whole * 10 + (c - '0');
+                digits++;
+            } else if (c != ',') {
+                break;
+            }
+        }
+
+        long fraction = 0;
+        int fractionLen = 0;
+        if (i < len && s.charAt(i) == '.') {
+            i++;
+            for (; i < len; i++) {
+                char c = s.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (fractionLen < fractionDigits) {
+                    fraction = fraction * 10 + (c - '0');
+                    fractionLen++;
+                } else if (fractionLen == fractionDigits) {
+                    // Digit pertama di luar skala menentukan pembulatan
+                    if (c >= '5') {
+                        fraction++;
+                    }
+                    fractionLen++;
+                }
+                digits++;
+            }
+        }
+
+        if (i < len || digits == 0) {
+            // Format lain (mis. notasi ilmiah) ditangani BigDecimal
+            return parseSlow(s, fractionDigits);
+        }
+
+        for (int k = Math.min(fractionLen, fractionDigits); k < fractionDigits; k++) {
+            fraction *= 10;
+        }
+        long value;
+        try {
+            // 17 digit bulat dikali skala bisa melewati Long.MAX_VALUE; nilai seperti itu ditolak, bukan dibungkus
+            value = Math.addExact(Math.multiplyExact(whole, scale), fraction);
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Angka di luar jangkauan: " + s);
+        }
+        return negative ? -value : value;
+    }
+
+    public static double toDouble(long value, int fractionDigits) {
+        return (double) value / POWERS_OF_TEN[fractionDigits];
+    }
+
+    private static long parseSlow(String s, int fractionDigits) {
+        try {
+            return new BigDecimal(s.replace(",", ""))
+                    .setScale(fractionDigits, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Angka di luar jangkauan: " + s);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.mcpserver.store;
+
+import java.util.Arrays;
+
+/**
+ * Akumulator agregasi per grup dengan array primitif paralel.
+ * Semua agregat (SUM tpv, SUM tpt, COUNT, MIN/MAX tpv) dihitung dalam satu pass atas baris hasil filter,
+ * tanpa list baris per grup maupun objek per baris. Grup diidentifikasi dengan slot int padat [0, groups);
+ * kapasitas bertambah otomatis jika slot baru melebihi jumlah grup awal.
+ */
+final class GroupAggregator {
+
+    private long[] sumTpv;
+    private long[] sumTpt;
+    private long[] rowCount;
+    private long[] minTpv;
+    private long[] maxTpv;
+
+    GroupAggregator(int groups) {
+        sumTpv = new long[groups];
+        sumTpt = new long[groups];
+        rowCount = new long[groups];
+        minTpv = new long[groups];
+        maxTpv = new long[groups];
+        Arrays.fill(minTpv, Long.MAX_VALUE);
+        Arrays.fill(maxTpv, Long.MIN_VALUE);
+    }
+
+    void add(int group, long tpv, long tpt) {
+        if (group >= rowCount.length) {
+            grow(group + 1);
+        }
+        sumTpv[group] += tpv;
+        sumTpt[group] += tpt;
+        rowCount[group]++;
+        if (tpv < minTpv[group]) {
+            minTpv[group] = tpv;
+        }
+        if (tpv > maxTpv[group]) {
+            maxTpv[group] = tpv;
+        }
+    }
+
+    private void grow(int minGroups) {
+        int oldLength = rowCount.length;
+        int length = Math.max(minGroups, oldLength * 2);
+        sumTpv = Arrays.copyOf(sumTpv, length);
+        sumTpt = Arrays.copyOf(sumTpt, length);
+        rowCount = Arrays.copyOf(rowCount, length);
+        minTpv = Arrays.copyOf(minTpv, length);
+        maxTpv = Arrays.copyOf(maxTpv, length);
+        Arrays.fill(minTpv, oldLength, length, Long.MAX_VALUE);
+        Arrays.fill(maxTpv, oldLength, length, Long.MIN_VALUE);
+    }
+
+    // Menambahkan agregat parsial (mis. hasil kernel agregasi) ke slot group
+    void add(int group, long partialSumTpv, long partialSumTpt, long partialRowCount, long partialMinTpv, long partialMaxTpv) {
+        if (partialRowCount == 0) {
+            return;
+        }
+        if (group >= rowCount.length) {
+            grow(group + 1);
+        }
+        sumTpv[group] += partialSumTpv;
+        sumTpt[group] += partialSumTpt;
+        rowCount[group] += partialRowCount;
+        minTpv[group] = Math.min(minTpv[group], partialMinTpv);
+        maxTpv[group] = Math.max(maxTpv[group], partialMaxTpv);
+    }
+
+    // Menggabungkan slot srcGroup dari akumulator lain ke slot group (dipakai saat menggabung hasil chunk paralel)
+    void merge(int group, GroupAggregator src, int srcGroup) {
+        add(group, src.sumTpv[srcGroup], src.sumTpt[srcGroup], src.rowCount[srcGroup], src.minTpv[srcGroup], src.maxTpv[srcGroup]);
+    }
+
+    // Menggabungkan semua slot akumulator lain ke slot yang sama; mengembalikan akumulator ini
+    GroupAggregator mergeAll(GroupAggregator src) {
+        for (int group = 0; group < src.rowCount.length; group++) {
+            merge(group, src, group);
+        }
+        return this;
+    }
+
+    int groups() {
+        return rowCount.length;
+    }
+
+    boolean isEmpty(int group) {
+        return group >= rowCount.length || rowCount[group] == 0;
+    }
+
+    long sumTpv(int group) {
+        return group < sumTpv.length ? sumTpv[group] : 0L;
+    }
+
+    long sumTpt(int group) {
+        return group < sumTpt.length ? sumTpt[group] : 0L;
+    }
+
+    long rowCount(int group) {
+        return group < rowCount.length ? rowCount[group] : 0L;
+    }
+
+    Aggregate get(int group) {
+        if (isEmpty(group)) {
+            return Aggregate.ZERO;
+        }
+        return new Aggregate(sumTpv[group], sumTpt[group], rowCount[group], minTpv[group], maxTpv[group]);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.mcpserver.store;
+
+import java.nio.IntBuffer;
+
+/**
+ * Kolom int read-only; disimpan di heap (array) atau off-heap (view atas file snapshot yang di-mmap).
+ */
+interface IntColumn {
+
+    int get(int row);
+
+    int size();
+
+    // Menyalin seluruh nilai kolom ke awal array target
+    void copyTo(int[] target);
+
+    static IntColumn heap(int[] values) {
+        return new Heap(values);
+    }
+
+    static IntColumn mapped(IntBuffer buffer) {
+        return new Mapped(buffer);
+    }
+
+    record Heap(int[] values) implements IntColumn {
+        @Override
+        public int get(int row) {
+            return values[row];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public void copyTo(int[] target) {
+            System.arraycopy(values, 0, target, 0, values.length);
+        }
+    }
+
+    record Mapped(IntBuffer buffer) implements IntColumn {
+        @Override
+        public int get(int row) {
+            return buffer.get(row);
+        }
+
+        @Override
+        public int size() {
+            return buffer.limit();
+        }
+
+        @Override
+        public void copyTo(int[] target) {
+            buffer.duplicate().rewind().get(target, 0, buffer.limit());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.mcpserver.store;
+
+import java.nio.LongBuffer;
+
+/**
+ * Kolom long read-only; disimpan di heap (array) atau off-heap (view atas file snapshot yang di-mmap).
+ */
+interface LongColumn {
+
+    long get(int row);
+
+    int size();
+
+    // Menyalin seluruh nilai kolom ke awal array target
+    void copyTo(long[] target);
+
+    static LongColumn heap(long[] values) {
+        return new Heap(values);
+    }
+
+    static LongColumn mapped(LongBuffer buffer) {
+        return new Mapped(buffer);
+    }
+
+    record Heap(long[] values) implements LongColumn {
+        @Override
+        public long get(int row) {
+            return values[row];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public void copyTo(long[] target) {
+            System.arraycopy(values, 0, target, 0, values.length);
+        }
+    }
+
+    record Mapped(LongBuffer buffer) implements LongColumn {
+        @Override
+        public long get(int row) {
+            return buffer.get(row);
+        }
+
+        @Override
+        public int size() {
+            return buffer.limit();
+        }
+
+        @Override
+        public void copyTo(long[] target) {
+            buffer.duplicate().rewind().get(target, 0, buffer.limit());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.mcpserver.store;
+
+import java.util.Arrays;
+
+/**
+ * Hash table open addressing dari key long (non-negatif) ke slot int padat yang diberikan berurutan.
+ * Dipakai untuk grouping multi-dimensi saat jumlah kombinasi terlalu besar untuk array padat.
+ */
+final class LongSlotMap {
+
+    private static final long EMPTY_KEY = -1L;
+
+    private long[] keys;
+    private int[] slots;
+    private long[] keysBySlot;
+    private int size;
+
+    LongSlotMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1);
+        keysBySlot = new long[Math.max(16, expectedSize)];
+    }
+
+    // Slot untuk key; key baru mendapat slot berikutnya
+    int slotOf(long key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != key) {
+            if (keys[index] == EMPTY_KEY) {
+                if (size * 4 >= keys.length * 3) {
+                    rehash();
+                    return slotOf(key);
+                }
+                keys[index] = key;
+                slots[index] = size;
+                if (size == keysBySlot.length) {
+                    keysBySlot = Arrays.copyOf(keysBySlot, size * 2);
+                }
+                keysBySlot[size] = key;
+                return size++;
+            }
+            index = (index + 1) & mask;
+        }
+        return slots[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long keyAt(int slot) {
+        return keysBySlot[slot];
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        slots = new int[capacity];
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldSlots = slots;
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int index = hash(oldKeys[i]) & mask;
+                while (keys[index] != EMPTY_KEY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                slots[index] = oldSlots[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.mcpserver.store;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parsing label bulan menjadi {@link YearMonth} dan key int ringkas ({@code year * 12 + (month - 1)})
+ * yang dapat diurutkan dan dipakai sebagai key partisi. Format yang diterima: {@code Oct-24}, {@code Oct-2024},
+ * {@code 2024-10}, {@code October 2024} dan {@code Oct 2024} (tanpa membedakan huruf besar/kecil).
+ * Label kanonik (format data) adalah {@code Oct-24}.
+ */
+public final class Months {
+
+    // Penanda label yang tidak bisa di-parse
+    public static final int NO_KEY = Integer.MIN_VALUE;
+
+    private static final DateTimeFormatter LABEL = formatter("MMM-yy");
+
+    private static final List<DateTimeFormatter> ACCEPTED = List.of(
+            LABEL,
+            formatter("MMM-yyyy"),
+            formatter("yyyy-MM"),
+            formatter("MMMM yyyy"),
+            formatter("MMM yyyy"));
+
+    private Months() {
+    }
+
+    // Tahun dua digit ("yy") dibaca sebagai 2000-2099
+    private static DateTimeFormatter formatter(String pattern) {
+        return new DateTimeFormatterBuilder()
+                .parseCaseInsensitive()
+                .appendPattern(pattern)
+                .toFormatter(Locale.ENGLISH);
+    }
+
+    /**
+     * Mengubah label bulan menjadi YearMonth.
+     *
+     * @throws IllegalArgumentException jika kosong atau format tidak dikenali
+     */
+    public static YearMonth parse(String month) {
+        if (month == null || month.isBlank()) {
+            throw new IllegalArgumentException("Bulan wajib diisi (contoh: Oct-24, 2024-10 atau October 2024).");
+        }
+        String text = month.trim();
+        for (DateTimeFormatter format : ACCEPTED) {
+            try {
+                return YearMonth.parse(text, format);
+            } catch (DateTimeParseException e) {
+                // coba format berikutnya
+            }
+        }
+        throw new IllegalArgumentException("Format bulan tidak valid: '" + month
+                + "'. Gunakan Oct-24, 2024-10 atau October 2024.");
+    }
+
+    // Sama seperti parse, tetapi mengembalikan null untuk label yang tidak dikenali
+    public static YearMonth parseOrNull(String month) {
+        try {
+            return parse(month);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static int key(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    public static YearMonth fromKey(int key) {
+        return YearMonth.of(Math.floorDiv(key, 12), Math.floorMod(key, 12) + 1);
+    }
+
+    // Key int untuk label bulan, atau NO_KEY jika tidak bisa di-parse
+    public static int keyOrNone(String month) {
+        YearMonth parsed = parseOrNull(month);
+        return parsed == null ? NO_KEY : key(parsed);
+    }
+
+    // Label bulan dalam format data (Oct-24)
+    public static String format(YearMonth month) {
+        return LABEL.format(month);
+    }
+
+    // Label kanonik (Oct-24) untuk label yang bisa di-parse; label lain (dan null) dikembalikan apa adanya
+    public static String canonical(String month) {
+        YearMonth parsed = parseOrNull(month);
+        return parsed == null ? month : format(parsed);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.mcpserver.store;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Eksekusi scan agregasi secara paralel di atas ForkJoinPool khusus (bukan common pool yang dipakai bersama Tomcat).
+ * Rentang baris [0, count) dipecah menjadi chunk; setiap chunk diakumulasi ke akumulatornya sendiri lalu
+ * hasilnya digabung saat join. Di bawah {@code threshold} baris, scan tetap berjalan sekuensial di thread pemanggil.
+ */
+public final class ParallelScan implements AutoCloseable {
+
+    private static final ParallelScan SEQUENTIAL = new ParallelScan(null, Integer.MAX_VALUE);
+
+    // Chunk tidak dipecah lebih kecil dari ini; overhead task dan merge akumulator harus tetap kecil dibanding scan
+    private static final int MIN_CHUNK_ROWS = 16 * 1024;
+    // Jumlah chunk per worker, agar worker yang selesai lebih dulu bisa mencuri sisa pekerjaan
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    private ParallelScan(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    // Scan sekuensial (default untuk store tanpa konfigurasi paralel)
+    public static ParallelScan sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Membuat pool khusus dengan {@code parallelism} worker (0 = jumlah prosesor).
+     * parallelism 1 berarti paralel dinonaktifkan.
+     */
+    public static ParallelScan create(int parallelism, int threshold) {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        if (workers <= 1) {
+            return SEQUENTIAL;
+        }
+        ForkJoinPool pool = new ForkJoinPool(workers, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("smire-scan-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        return new ParallelScan(pool, Math.max(threshold, 1));
+    }
+
+    // true jika scan atas {@code rows} baris akan dijalankan paralel
+    public boolean isParallel(long rows) {
+        return pool != null && rows >= threshold && rows >= 2 * MIN_CHUNK_ROWS;
+    }
+
+    public int parallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    /**
+     * Akumulasi posisi [from, to) ke satu akumulator.
+     */
+    @FunctionalInterface
+    public interface RangeScanner<A> {
+        void scan(A accumulator, int from, int to);
+    }
+
+    /**
+     * Menjalankan {@code scanner} atas posisi [0, count) dan mengembalikan akumulator hasil gabungan.
+     * {@code merge} menggabungkan akumulator kanan ke kiri dan mengembalikan hasilnya (boleh memodifikasi kiri).
+     */
+    public <A> A reduce(int count, Supplier<A> newAccumulator, RangeScanner<A> scanner, BinaryOperator<A> merge) {
+        return reduce(count, 1, newAccumulator, scanner, merge);
+    }
+
+    /**
+     * Seperti {@link #reduce(int, Supplier, RangeScanner, BinaryOperator)}, untuk posisi [0, units) yang masing-masing
+     * mewakili {@code rowsPerUnit} baris (mis. word bitset = 64 baris); chunk tidak pernah memotong satu unit.
+     */
+    public <A> A reduce(int units, int rowsPerUnit, Supplier<A> newAccumulator, RangeScanner<A> scanner, BinaryOperator<A> merge) {
+        long rows = (long) units * rowsPerUnit;
+        if (!isParallel(rows)) {
+            A accumulator = newAccumulator.get();
+            scanner.scan(accumulator, 0, units);
+            return accumulator;
+        }
+        int chunks = (int) Math.min(pool.getParallelism() * CHUNKS_PER_WORKER, rows / MIN_CHUNK_ROWS);
+        int chunkUnits = (units + chunks - 1) / chunks;
+        return pool.invoke(new ChunkTask<>(0, units, chunkUnits, newAccumulator, scanner, merge));
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Membagi rentang secara biner sampai sekecil {@code chunkUnits} posisi, lalu scan dan gabungkan saat join.
+     */
+    // ForkJoinTask Serializable hanya karena warisan API; task ini tidak pernah diserialisasi dan menyimpan lambda
+    @SuppressWarnings("serial")
+    private static final class ChunkTask<A> extends RecursiveTask<A> {
+        private final int from;
+        private final int to;
+        private final int chunkUnits;
+        private final Supplier<A> newAccumulator;
+        private final RangeScanner<A> scanner;
+        private final BinaryOperator<A> merge;
+
+        ChunkTask(int from, int to, int chunkUnits, Supplier<A> newAccumulator, RangeScanner<A> scanner, BinaryOperator<A> merge) {
+            this.from = from;
+            this.to = to;
+            this.chunkUnits = chunkUnits;
+            this.newAccumulator = newAccumulator;
+            this.scanner = scanner;
+            this.merge = merge;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= chunkUnits) {
+                A accumulator = newAccumulator.get();
+                scanner.scan(accumulator, from, to);
+                return accumulator;
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask<A> right = new ChunkTask<>(middle, to, chunkUnits, newAccumulator, scanner, merge);
+            right.fork();
+            A left = new ChunkTask<>(from, middle, chunkUnits, newAccumulator, scanner, merge).compute();
+            return merge.apply(left, right.join());
+        }
+    }
+}
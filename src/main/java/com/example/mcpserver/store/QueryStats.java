@@ -0,0 +1,124 @@
+package com.example.mcpserver.store;
+
+/**
+ * Statistik query per thread selama satu pemanggilan tool: jalur akses yang dipakai (rollup cube, bitmap index,
+ * atau scan penuh), partisi yang dibaca / dipangkas, jumlah baris yang dibaca (scan) dan yang cocok dengan filter,
+ * serta cache hit/miss. Dicatat di thread pemanggil pada level query (bukan di worker scan paralel), sehingga
+ * overhead-nya hanya satu lookup ThreadLocal per query.
+ * Jawaban dari rollup cube tidak membaca baris (rowsScanned 0), tetapi tetap menghitung rowsMatched.
+ */
+public final class QueryStats {
+
+    /**
+     * Jalur akses satu query partisi.
+     */
+    public enum Access { CUBE, INDEX, FULL_SCAN }
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final QueryStats previous;
+    private final int[] accesses = new int[Access.values().length];
+    private int partitionsScanned;
+    private int partitionsPruned;
+    private long rowsScanned;
+    private long rowsMatched;
+    private int cacheHits;
+    private int cacheMisses;
+
+    private QueryStats(QueryStats previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Mulai mengumpulkan statistik di thread ini sampai {@link #end()} dipanggil.
+     */
+    public static QueryStats begin() {
+        QueryStats stats = new QueryStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    // Berhenti mengumpulkan; statistik pemanggil sebelumnya (jika bersarang) aktif kembali
+    public void end() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public long rowsScanned() {
+        return rowsScanned;
+    }
+
+    public long rowsMatched() {
+        return rowsMatched;
+    }
+
+    public int partitionsScanned() {
+        return partitionsScanned;
+    }
+
+    public int partitionsPruned() {
+        return partitionsPruned;
+    }
+
+    public int accesses(Access access) {
+        return accesses[access.ordinal()];
+    }
+
+    public int cacheHits() {
+        return cacheHits;
+    }
+
+    public int cacheMisses() {
+        return cacheMisses;
+    }
+
+    // Ringkasan rencana eksekusi, mis. "cube=2 index=1 full_scan=0 partitions=3/13"
+    public String plan() {
+        return "cube=" + accesses(Access.CUBE) + " index=" + accesses(Access.INDEX) + " full_scan=" + accesses(Access.FULL_SCAN)
+                + " partitions=" + partitionsScanned + "/" + (partitionsScanned + partitionsPruned);
+    }
+
+    // hit, miss, hit+miss (beberapa lookup), atau none (tanpa cache)
+    public String cache() {
+        if (cacheHits == 0 && cacheMisses == 0) {
+            return "none";
+        }
+        return cacheMisses == 0 ? "hit" : cacheHits == 0 ? "miss" : "hit+miss";
+    }
+
+    /**
+     * Dicatat oleh cache hasil tool untuk setiap lookup.
+     */
+    public static void recordCache(boolean hit) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            if (hit) {
+                stats.cacheHits++;
+            } else {
+                stats.cacheMisses++;
+            }
+        }
+    }
+
+    // Dipanggil store partisi setelah partition pruning
+    static void recordPartitions(int scanned, int pruned) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.partitionsScanned += scanned;
+            stats.partitionsPruned += pruned;
+        }
+    }
+
+    // Dipanggil store setelah satu query partisi selesai
+    static void record(Access access, long scanned, long matched) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.accesses[access.ordinal()]++;
+            stats.rowsScanned += scanned;
+            stats.rowsMatched += matched;
+        }
+    }
+}
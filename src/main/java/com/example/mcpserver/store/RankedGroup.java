@@ -0,0 +1,8 @@
+package com.example.mcpserver.store;
+
+/**
+ * Satu baris hasil ranking: nilai grup, total agregat pada rentang bulan, agregat bulan awal/akhir
+ * (untuk ranking growth) dan skor yang dipakai untuk mengurutkan.
+ */
+public record RankedGroup(String key, Aggregate total, Aggregate first, Aggregate last, double score) {
+}
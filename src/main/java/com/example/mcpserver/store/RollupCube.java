@@ -0,0 +1,216 @@
+package com.example.mcpserver.store;
+
+import java.util.Arrays;
+
+/**
+ * Cube pra-agregasi atas (month, pillar, product_type, brand_id).
+ * Semua 16 kombinasi subset dimensi dimaterialisasi saat load sehingga SUM(tpv), SUM(tpt), COUNT dan MIN/MAX(tpv)
+ * untuk filter apa pun di atas keempat dimensi tersebut cukup berupa satu lookup hash.
+ * Sel disimpan dalam hash table open addressing dengan array long paralel (tanpa boxing).
+ */
+final class RollupCube {
+
+    // Penanda "semua nilai" untuk sebuah dimensi saat lookup
+    static final int ALL = -2;
+
+    private static final int MONTH_BITS = 12;
+    private static final int PILLAR_BITS = 12;
+    private static final int PRODUCT_TYPE_BITS = 12;
+    private static final int BRAND_ID_BITS = 27;
+
+    // Key hanya memakai 63 bit sehingga -1 aman dipakai sebagai penanda slot kosong
+    private static final long EMPTY_KEY = -1L;
+
+    private long[] keys;
+    private long[] sumTpv;
+    private long[] sumTpt;
+    private long[] rowCount;
+    private long[] minTpv;
+    private long[] maxTpv;
+    private int size;
+
+    private RollupCube(int expectedCells) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedCells * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private RollupCube(RollupCube other) {
+        this.keys = other.keys.clone();
+        this.sumTpv = other.sumTpv.clone();
+        this.sumTpt = other.sumTpt.clone();
+        this.rowCount = other.rowCount.clone();
+        this.minTpv = other.minTpv.clone();
+        this.maxTpv = other.maxTpv.clone();
+        this.size = other.size;
+    }
+
+    /**
+     * Membangun cube dari kolom store; mengembalikan null jika kardinalitas dimensi
+     * melebihi kapasitas encoding key (query kemudian selalu memakai scan).
+     */
+    static RollupCube build(int rowCount, IntColumn monthCol, IntColumn pillarCol, IntColumn productTypeCol,
+                            IntColumn brandIdCol, LongColumn tpvCol, LongColumn tptCol,
+                            int monthCardinality, int pillarCardinality, int productTypeCardinality, int brandIdCardinality) {
+        if (!fits(monthCardinality, pillarCardinality, productTypeCardinality, brandIdCardinality)) {
+            return null;
+        }
+
+        RollupCube cube = new RollupCube(Math.min(rowCount, 1 << 20) * 4);
+        cube.addRows(0, rowCount, monthCol, pillarCol, productTypeCol, brandIdCol, tpvCol, tptCol);
+        return cube;
+    }
+
+    /**
+     * Salinan cube ditambah baris [from, to) secara inkremental (untuk append); cube ini sendiri tidak berubah.
+     * Mengembalikan null jika kardinalitas baru melebihi kapasitas encoding key.
+     */
+    RollupCube withRows(int from, int to, IntColumn monthCol, IntColumn pillarCol, IntColumn productTypeCol,
+                        IntColumn brandIdCol, LongColumn tpvCol, LongColumn tptCol,
+                        int monthCardinality, int pillarCardinality, int productTypeCardinality, int brandIdCardinality) {
+        if (!fits(monthCardinality, pillarCardinality, productTypeCardinality, brandIdCardinality)) {
+            return null;
+        }
+        RollupCube copy = new RollupCube(this);
+        copy.addRows(from, to, monthCol, pillarCol, productTypeCol, brandIdCol, tpvCol, tptCol);
+        return copy;
+    }
+
+    private void addRows(int from, int to, IntColumn monthCol, IntColumn pillarCol, IntColumn productTypeCol,
+                         IntColumn brandIdCol, LongColumn tpvCol, LongColumn tptCol) {
+        for (int row = from; row < to; row++) {
+            int month = monthCol.get(row);
+            int pillar = pillarCol.get(row);
+            int productType = productTypeCol.get(row);
+            int brandId = brandIdCol.get(row);
+            long tpv = tpvCol.get(row);
+            long tpt = tptCol.get(row);
+            for (int mask = 0; mask < 16; mask++) {
+                long key = key(
+                        (mask & 1) != 0 ? month : ALL,
+                        (mask & 2) != 0 ? pillar : ALL,
+                        (mask & 4) != 0 ? productType : ALL,
+                        (mask & 8) != 0 ? brandId : ALL);
+                add(key, tpv, tpt);
+            }
+        }
+    }
+
+    /**
+     * Lookup satu sel; setiap argumen berupa id kamus, {@link StringDictionary#MISSING} atau {@link #ALL}.
+     */
+    Aggregate lookup(int monthId, int pillarId, int productTypeId, int brandIdId) {
+        int slot = find(key(monthId, pillarId, productTypeId, brandIdId));
+        return slot < 0 ? Aggregate.ZERO : new Aggregate(sumTpv[slot], sumTpt[slot], rowCount[slot], minTpv[slot], maxTpv[slot]);
+    }
+
+    int cellCount() {
+        return size;
+    }
+
+    // =========================
+    // Encoding & hash table
+    // =========================
+
+    private static boolean fits(int monthCardinality, int pillarCardinality, int productTypeCardinality,
+                                int brandIdCardinality) {
+        return fits(monthCardinality, MONTH_BITS) && fits(pillarCardinality, PILLAR_BITS)
+                && fits(productTypeCardinality, PRODUCT_TYPE_BITS) && fits(brandIdCardinality, BRAND_ID_BITS);
+    }
+
+    private static boolean fits(int cardinality, int bits) {
+        // Nilai 0 dipakai MISSING dan nilai maksimum dipakai ALL
+        return cardinality + 1 < (1L << bits) - 1;
+    }
+
+    private static long field(int id, int bits) {
+        long mask = (1L << bits) - 1;
+        return id == ALL ? mask : id + 1L;
+    }
+
+    private static long key(int month, int pillar, int productType, int brandId) {
+        return field(month, MONTH_BITS) << (PILLAR_BITS + PRODUCT_TYPE_BITS + BRAND_ID_BITS)
+                | field(pillar, PILLAR_BITS) << (PRODUCT_TYPE_BITS + BRAND_ID_BITS)
+                | field(productType, PRODUCT_TYPE_BITS) << BRAND_ID_BITS
+                | field(brandId, BRAND_ID_BITS);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            if (keys[slot] == EMPTY_KEY) {
+                return -1;
+            }
+        }
+    }
+
+    private void add(long key, long tpv, long tpt) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY_KEY) {
+                if (size * 4 >= keys.length * 3) {
+                    rehash();
+                    add(key, tpv, tpt);
+                    return;
+                }
+                keys[slot] = key;
+                size++;
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (rowCount[slot] == 0) {
+            minTpv[slot] = tpv;
+            maxTpv[slot] = tpv;
+        } else {
+            minTpv[slot] = Math.min(minTpv[slot], tpv);
+            maxTpv[slot] = Math.max(maxTpv[slot], tpv);
+        }
+        sumTpv[slot] += tpv;
+        sumTpt[slot] += tpt;
+        rowCount[slot]++;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        sumTpv = new long[capacity];
+        sumTpt = new long[capacity];
+        rowCount = new long[capacity];
+        minTpv = new long[capacity];
+        maxTpv = new long[capacity];
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        long[] oldTpv = sumTpv;
+        long[] oldTpt = sumTpt;
+        long[] oldCount = rowCount;
+        long[] oldMin = minTpv;
+        long[] oldMax = maxTpv;
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                sumTpv[slot] = oldTpv[i];
+                sumTpt[slot] = oldTpt[i];
+                rowCount[slot] = oldCount[i];
+                minTpv[slot] = oldMin[i];
+                maxTpv[slot] = oldMax[i];
+            }
+        }
+    }
+}
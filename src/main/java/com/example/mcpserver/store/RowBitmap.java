@@ -0,0 +1,401 @@
+package com.example.mcpserver.store;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Bitset terkompresi (gaya Roaring) untuk himpunan id baris.
+ * Id dibagi per blok 65.536 berdasarkan 16 bit atas; tiap blok disimpan sebagai array terurut
+ * (jika berisi paling banyak {@value #ARRAY_MAX} nilai) atau bitmap 1024 word.
+ * Instance bersifat immutable; dibangun dengan {@link Builder} dari id yang menaik.
+ */
+public final class RowBitmap {
+
+    static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    public static final RowBitmap EMPTY = new RowBitmap(new char[0], new Container[0], 0);
+
+    private final char[] keys;
+    private final Container[] containers;
+    private final int cardinality;
+
+    private RowBitmap(char[] keys, Container[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public RowBitmap and(RowBitmap other) {
+        if (isEmpty() || other.isEmpty()) {
+            return EMPTY;
+        }
+        int capacity = Math.min(keys.length, other.keys.length);
+        char[] outKeys = new char[capacity];
+        Container[] outContainers = new Container[capacity];
+        int n = 0;
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container c = containers[i].and(other.containers[j]);
+                if (c.cardinality() > 0) {
+                    outKeys[n] = keys[i];
+                    outContainers[n++] = c;
+                    total += c.cardinality();
+                }
+                i++;
+                j++;
+            }
+        }
+        return total == 0 ? EMPTY : new RowBitmap(Arrays.copyOf(outKeys, n), Arrays.copyOf(outContainers, n), total);
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int k = 0; k < keys.length; k++) {
+            containers[k].forEach(keys[k] << 16, action);
+        }
+    }
+
+    public int[] toArray() {
+        int[] rows = new int[cardinality];
+        int offset = 0;
+        for (int k = 0; k < keys.length; k++) {
+            offset = containers[k].copyTo(keys[k] << 16, rows, offset);
+        }
+        return rows;
+    }
+
+    /**
+     * Bitset polos untuk rentang [from, to): bit {@code b} dari word {@code w} mewakili baris
+     * {@code (from & ~63) + 64 * w + b}. Dipakai kernel agregasi yang membaca kolom per word (64 baris).
+     */
+    public long[] toWords(int from, int to) {
+        if (from >= to) {
+            return new long[0];
+        }
+        int baseWord = from >>> 6;
+        long[] words = new long[((to - 1) >>> 6) - baseWord + 1];
+        int firstKey = from >>> 16;
+        int lastKey = (to - 1) >>> 16;
+        for (int k = 0; k < keys.length; k++) {
+            if (keys[k] >= firstKey && keys[k] <= lastKey) {
+                containers[k].orInto(words, (keys[k] << 10) - baseWord);
+            }
+        }
+        clip(words, from, to);
+        return words;
+    }
+
+    // Seperti toWords, tetapi semua baris dalam rentang diset
+    public static long[] rangeWords(int from, int to) {
+        if (from >= to) {
+            return new long[0];
+        }
+        long[] words = new long[((to - 1) >>> 6) - (from >>> 6) + 1];
+        Arrays.fill(words, -1L);
+        clip(words, from, to);
+        return words;
+    }
+
+    // Membuang bit di luar [from, to) pada word pertama dan terakhir
+    private static void clip(long[] words, int from, int to) {
+        words[0] &= -1L << (from & 63);
+        words[words.length - 1] &= -1L >>> (63 - ((to - 1) & 63));
+    }
+
+    // =========================
+    // Containers
+    // =========================
+
+    private interface Container {
+        int cardinality();
+
+        Container and(Container other);
+
+        void forEach(int base, IntConsumer action);
+
+        int copyTo(int base, int[] target, int offset);
+
+        // OR bit container ke target; word ke-w container jatuh di target[wordOffset + w] (di luar target diabaikan)
+        void orInto(long[] target, int wordOffset);
+    }
+
+    private static final class ArrayContainer implements Container {
+        private final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                return bitmap.and(this);
+            }
+            char[] a = values;
+            char[] b = ((ArrayContainer) other).values;
+            char[] out = new char[Math.min(a.length, b.length)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(Arrays.copyOf(out, n));
+        }
+
+        @Override
+        public void forEach(int base, IntConsumer action) {
+            for (char v : values) {
+                action.accept(base | v);
+            }
+        }
+
+        @Override
+        public int copyTo(int base, int[] target, int offset) {
+            for (char v : values) {
+                target[offset++] = base | v;
+            }
+            return offset;
+        }
+
+        @Override
+        public void orInto(long[] target, int wordOffset) {
+            for (char v : values) {
+                int index = wordOffset + (v >>> 6);
+                if (index >= 0 && index < target.length) {
+                    target[index] |= 1L << v;
+                }
+            }
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final long[] words;
+        private final int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        int max() {
+            for (int w = BITMAP_WORDS - 1; w >= 0; w--) {
+                if (words[w] != 0) {
+                    return (w << 6) | (63 - Long.numberOfLeadingZeros(words[w]));
+                }
+            }
+            return -1;
+        }
+
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof ArrayContainer array) {
+                char[] out = new char[array.values.length];
+                int n = 0;
+                for (char v : array.values) {
+                    if (contains(v)) {
+                        out[n++] = v;
+                    }
+                }
+                return new ArrayContainer(Arrays.copyOf(out, n));
+            }
+            long[] b = ((BitmapContainer) other).words;
+            long[] out = new long[BITMAP_WORDS];
+            int card = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                out[w] = words[w] & b[w];
+                card += Long.bitCount(out[w]);
+            }
+            return card > ARRAY_MAX ? new BitmapContainer(out, card) : toArrayContainer(out, card);
+        }
+
+        @Override
+        public void forEach(int base, IntConsumer action) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        public int copyTo(int base, int[] target, int offset) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    target[offset++] = base | (w << 6) | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return offset;
+        }
+
+        @Override
+        public void orInto(long[] target, int wordOffset) {
+            int from = Math.max(0, -wordOffset);
+            int to = Math.min(BITMAP_WORDS, target.length - wordOffset);
+            for (int w = from; w < to; w++) {
+                target[wordOffset + w] |= words[w];
+            }
+        }
+
+        private static ArrayContainer toArrayContainer(long[] words, int cardinality) {
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values);
+        }
+    }
+
+    // =========================
+    // Builder
+    // =========================
+
+    /**
+     * Membangun bitmap dari id baris yang ditambahkan secara menaik.
+     */
+    public static final class Builder {
+
+        private char[] keys = new char[4];
+        private Container[] containers = new Container[4];
+        private int size;
+        private int cardinality;
+
+        private int currentKey = -1;
+        private char[] currentValues = new char[16];
+        private long[] currentWords;
+        private int currentCardinality;
+        private int lastRow = -1;
+
+        public Builder() {
+        }
+
+        /**
+         * Builder yang melanjutkan bitmap yang sudah ada (untuk append id baris baru yang lebih besar).
+         * Container lama dipakai bersama tanpa disalin, kecuali container terakhir yang dibuka kembali.
+         */
+        public static Builder from(RowBitmap base) {
+            Builder builder = new Builder();
+            int n = base.keys.length;
+            if (n == 0) {
+                return builder;
+            }
+            builder.keys = Arrays.copyOf(base.keys, n + 4);
+            builder.containers = Arrays.copyOf(base.containers, n + 4);
+            builder.size = n - 1;
+
+            Container last = base.containers[n - 1];
+            builder.cardinality = base.cardinality - last.cardinality();
+            builder.currentKey = base.keys[n - 1];
+            builder.currentCardinality = last.cardinality();
+            if (last instanceof BitmapContainer bitmap) {
+                builder.currentWords = bitmap.words.clone();
+                builder.lastRow = (builder.currentKey << 16) | bitmap.max();
+            } else {
+                char[] values = ((ArrayContainer) last).values;
+                builder.currentValues = Arrays.copyOf(values, Math.max(16, values.length));
+                builder.lastRow = (builder.currentKey << 16) | values[values.length - 1];
+            }
+            return builder;
+        }
+
+        public Builder add(int row) {
+            if (row <= lastRow) {
+                throw new IllegalArgumentException("Id baris harus menaik: " + row + " setelah " + lastRow);
+            }
+            lastRow = row;
+            int key = row >>> 16;
+            char low = (char) row;
+            if (key != currentKey) {
+                flush();
+                currentKey = key;
+            }
+            if (currentWords != null) {
+                currentWords[low >>> 6] |= 1L << low;
+            } else if (currentCardinality < ARRAY_MAX) {
+                if (currentCardinality == currentValues.length) {
+                    currentValues = Arrays.copyOf(currentValues, Math.min(ARRAY_MAX, currentCardinality * 2));
+                }
+                currentValues[currentCardinality] = low;
+            } else {
+                // Blok terlalu padat untuk array: konversi ke bitmap
+                currentWords = new long[BITMAP_WORDS];
+                for (int i = 0; i < currentCardinality; i++) {
+                    char v = currentValues[i];
+                    currentWords[v >>> 6] |= 1L << v;
+                }
+                currentWords[low >>> 6] |= 1L << low;
+            }
+            currentCardinality++;
+            return this;
+        }
+
+        public RowBitmap build() {
+            flush();
+            return cardinality == 0 ? EMPTY : new RowBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size), cardinality);
+        }
+
+        private void flush() {
+            if (currentCardinality == 0) {
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                containers = Arrays.copyOf(containers, size * 2);
+            }
+            keys[size] = (char) currentKey;
+            containers[size++] = currentWords != null
+                    ? new BitmapContainer(currentWords, currentCardinality)
+                    : new ArrayContainer(Arrays.copyOf(currentValues, currentCardinality));
+            cardinality += currentCardinality;
+            currentValues = new char[16];
+            currentWords = null;
+            currentCardinality = 0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.mcpserver.store;
+
+/**
+ * Kernel agregasi skalar: satu baris per bit yang diset. Dipakai jika Vector API tidak tersedia,
+ * dan untuk kolom off-heap (memory-mapped).
+ */
+final class ScalarAggregationKernel implements AggregationKernel {
+
+    static final ScalarAggregationKernel INSTANCE = new ScalarAggregationKernel();
+
+    private ScalarAggregationKernel() {
+    }
+
+    @Override
+    public void accumulate(long[] words, int fromWord, int toWord, int base, LongColumn tpv, LongColumn tpt,
+                           GroupAggregator accumulator, int group) {
+        for (int w = fromWord; w < toWord; w++) {
+            long word = words[w];
+            int wordBase = base + (w << 6);
+            while (word != 0) {
+                int row = wordBase + Long.numberOfTrailingZeros(word);
+                accumulator.add(group, tpv.get(row), tpt.get(row));
+                word &= word - 1;
+            }
+        }
+    }
+
+    @Override
+    public String description() {
+        return "skalar";
+    }
+}
@@ -0,0 +1,962 @@
+package com.example.mcpserver.store;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Penyimpanan kolumnar (in-memory) untuk data SMIRE.
+ * Kolom dimensi disimpan sebagai id int hasil dictionary encoding, sedangkan tpv/tpt disimpan
+ * sebagai array long primitif sehingga filter dan agregasi tidak lagi melakukan lookup Map per field.
+ * tpv disimpan fixed-point dengan {@link #TPV_FRACTION_DIGITS} digit desimal (satuan terkecil).
+ * Setiap dimensi filter memiliki bitmap index per nilai sehingga filter cukup berupa operasi AND bitmap,
+ * dan {@link RollupCube} menjawab agregasi tanpa filter merchant_name dengan satu lookup.
+ * Label bulan dicocokkan lewat key bulan ({@link Months#key}). {@link SmirePartitionedStore} menyimpan satu bulan
+ * per store, sehingga filter bulan yang mencakup semua baris store dilewati tanpa bitmap.
+ * Kolom dapat berada di heap atau off-heap (view memory-mapped atas snapshot, lihat {@link SmireSnapshot#map}).
+ * Instance bersifat immutable; dibangun sekali melalui {@link Builder}.
+ */
+public final class SmireColumnStore {
+
+    // Label grup untuk baris yang tidak memiliki nilai dimensi
+    public static final String UNKNOWN = "Unknown";
+
+    // Jumlah digit desimal kolom tpv (fixed-point)
+    public static final int TPV_FRACTION_DIGITS = 2;
+
+    // Penanda "tanpa filter" untuk sebuah dimensi; sama dengan ALL pada cube
+    private static final int ANY = RollupCube.ALL;
+
+    // Batas jumlah kombinasi grup yang diakumulasi dengan array padat; di atasnya memakai hash
+    private static final long DENSE_GROUP_LIMIT = 1 << 20;
+    // Pada scan paralel setiap chunk punya akumulatornya sendiri; grouping dengan lebih banyak grup tetap sekuensial
+    private static final long PARALLEL_GROUP_LIMIT = 1 << 16;
+    // Grouping dengan paling banyak sekian nilai dijalankan per grup sebagai bitset (filter AND index grup) lewat kernel
+    private static final int KERNEL_GROUP_LIMIT = 64;
+
+    private static final AggregationKernel KERNEL = AggregationKernel.get();
+
+    // Nama kernel agregasi yang terpilih (SIMD atau skalar), untuk log startup
+    public static String aggregationKernel() {
+        return KERNEL.description();
+    }
+
+    // Indeks dimensi pada array hasil resolveFilter
+    private static final int F_MONTH = 0;
+    private static final int F_PILLAR = 1;
+    private static final int F_PRODUCT_TYPE = 2;
+    private static final int F_BRAND_ID = 3;
+    private static final int F_MERCHANT = 4;
+
+    public enum Dimension { MONTH, PILLAR, PRODUCT_TYPE, BRAND_ID, MERCHANT_NAME }
+
+    // Dasar ranking: total tpv, total tpt, atau pertumbuhan tpv bulan akhir terhadap bulan awal (%)
+    public enum Ranking { TPV, TPT, GROWTH }
+
+    /**
+     * Tujuan baris hasil parsing (dipakai {@link Builder} dan {@link Appender}).
+     */
+    public interface RowSink {
+        void addRow(String month, String pillar, String productType, String brandId,
+                    String merchantName, long tpvMinorUnits, long tpt);
+    }
+
+    private final int rowCount;
+
+    private final StringDictionary months;
+    private final StringDictionary pillars;
+    private final StringDictionary productTypes;
+    private final StringDictionary brandIds;
+    private final StringDictionary merchantNames;
+    // merchant_name versi lower-case untuk pencarian case-insensitive
+    private final StringDictionary merchantKeys;
+
+    private final IntColumn monthCol;
+    private final IntColumn pillarCol;
+    private final IntColumn productTypeCol;
+    private final IntColumn brandIdCol;
+    private final IntColumn merchantNameCol;
+    private final IntColumn merchantKeyCol;
+    private final LongColumn tpvCol;
+    private final LongColumn tptCol;
+
+    // Bitmap index per id kamus untuk setiap dimensi filter
+    private final RowBitmap[] monthIndex;
+    private final RowBitmap[] pillarIndex;
+    private final RowBitmap[] productTypeIndex;
+    private final RowBitmap[] brandIdIndex;
+    private final RowBitmap[] merchantKeyIndex;
+
+    // null jika kardinalitas dimensi terlalu besar untuk cube
+    private final RollupCube cube;
+
+    // Key bulan (Months.key) per id kamus bulan; Months.NO_KEY untuk label yang tidak bisa di-parse
+    private final int[] monthKeys;
+
+    /**
+     * Membuat store dari kamus dan kolom yang sudah jadi (dipakai Builder dan pembaca snapshot).
+     * Urutan array mengikuti {@link #dictionaries()} dan {@link #intColumns()}.
+     * Kolom boleh berada di heap maupun off-heap (memory-mapped).
+     */
+    SmireColumnStore(StringDictionary[] dictionaries, IntColumn[] intColumns, LongColumn tpvCol, LongColumn tptCol) {
+        this(dictionaries, intColumns, tpvCol, tptCol, null, null);
+    }
+
+    /**
+     * Konstruktor untuk append: index dan cube yang sudah diperbarui secara inkremental diberikan langsung.
+     * Jika {@code indexes} null, index dan cube dibangun dari kolom.
+     */
+    private SmireColumnStore(StringDictionary[] dictionaries, IntColumn[] intColumns, LongColumn tpvCol, LongColumn tptCol,
+                             RowBitmap[][] indexes, RollupCube cube) {
+        this.rowCount = tpvCol.size();
+        this.months = dictionaries[0];
+        this.pillars = dictionaries[1];
+        this.productTypes = dictionaries[2];
+        this.brandIds = dictionaries[3];
+        this.merchantNames = dictionaries[4];
+        this.merchantKeys = dictionaries[5];
+        this.monthCol = intColumns[0];
+        this.pillarCol = intColumns[1];
+        this.productTypeCol = intColumns[2];
+        this.brandIdCol = intColumns[3];
+        this.merchantNameCol = intColumns[4];
+        this.merchantKeyCol = intColumns[5];
+        this.tpvCol = tpvCol;
+        this.tptCol = tptCol;
+
+        this.monthKeys = new int[months.size()];
+        for (int id = 0; id < monthKeys.length; id++) {
+            monthKeys[id] = Months.keyOrNone(months.valueOf(id));
+        }
+
+        if (indexes != null) {
+            this.monthIndex = indexes[0];
+            this.pillarIndex = indexes[1];
+            this.productTypeIndex = indexes[2];
+            this.brandIdIndex = indexes[3];
+            this.merchantKeyIndex = indexes[4];
+            this.cube = cube;
+            return;
+        }
+
+        this.monthIndex = buildIndex(monthCol, months.size());
+        this.pillarIndex = buildIndex(pillarCol, pillars.size());
+        this.productTypeIndex = buildIndex(productTypeCol, productTypes.size());
+        this.brandIdIndex = buildIndex(brandIdCol, brandIds.size());
+        this.merchantKeyIndex = buildIndex(merchantKeyCol, merchantKeys.size());
+
+        this.cube = RollupCube.build(rowCount, monthCol, pillarCol, productTypeCol, brandIdCol, tpvCol, tptCol,
+                months.size(), pillars.size(), productTypes.size(), brandIds.size());
+    }
+
+    private static RowBitmap[] buildIndex(IntColumn column, int cardinality) {
+        RowBitmap.Builder[] builders = new RowBitmap.Builder[cardinality];
+        for (int row = 0; row < column.size(); row++) {
+            int id = column.get(row);
+            if (id != StringDictionary.MISSING) {
+                if (builders[id] == null) {
+                    builders[id] = new RowBitmap.Builder();
+                }
+                builders[id].add(row);
+            }
+        }
+        RowBitmap[] index = new RowBitmap[cardinality];
+        for (int id = 0; id < cardinality; id++) {
+            index[id] = builders[id] != null ? builders[id].build() : RowBitmap.EMPTY;
+        }
+        return index;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static SmireColumnStore empty() {
+        return new Builder().build();
+    }
+
+    /**
+     * Appender untuk menambah baris baru di atas store ini; store ini sendiri tidak berubah.
+     */
+    public Appender appender() {
+        return new Appender(this);
+    }
+
+    // Kamus dengan urutan: month, pillar, product_type, brand_id, merchant_name, merchant key
+    StringDictionary[] dictionaries() {
+        return new StringDictionary[]{months, pillars, productTypes, brandIds, merchantNames, merchantKeys};
+    }
+
+    // Kolom id kamus dengan urutan yang sama dengan dictionaries()
+    IntColumn[] intColumns() {
+        return new IntColumn[]{monthCol, pillarCol, productTypeCol, brandIdCol, merchantNameCol, merchantKeyCol};
+    }
+
+    LongColumn tpvColumn() {
+        return tpvCol;
+    }
+
+    LongColumn tptColumn() {
+        return tptCol;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public boolean isEmpty() {
+        return rowCount == 0;
+    }
+
+    // true jika kolom berada off-heap (memory-mapped)
+    public boolean isOffHeap() {
+        return tpvCol instanceof LongColumn.Mapped;
+    }
+
+    // =========================
+    // Query
+    // =========================
+
+    /**
+     * Menghitung SUM(tpv), SUM(tpt) dan jumlah baris yang cocok dengan filter.
+     * Tanpa filter merchant_name jawaban diambil langsung dari rollup cube; selain itu bitmap index hasil filter
+     * diagregasi lewat {@link AggregationKernel} (SIMD jika tersedia).
+     */
+    public Aggregate summarize(String month, String pillar, String productType, String brandId, String merchantName) {
+        return summarize(month, pillar, productType, brandId, merchantName, ParallelScan.sequential());
+    }
+
+    // Seperti summarize; scan baris (filter merchant_name) dijalankan lewat {@code scan}
+    Aggregate summarize(String month, String pillar, String productType, String brandId, String merchantName,
+                        ParallelScan scan) {
+        int[] ids = resolveFilter(month, pillar, productType, brandId, merchantName);
+        if (ids == null) {
+            return Aggregate.ZERO;
+        }
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
+        if (cube != null && ids[F_MERCHANT] == ANY) {
+            Aggregate aggregate = cube.lookup(ids[F_MONTH], ids[F_PILLAR], ids[F_PRODUCT_TYPE], ids[F_BRAND_ID]);
+            recordQuery(event, null, QueryStats.Access.CUBE, 0, aggregate.rowCount(), 1);
+            return aggregate;
+        }
+        GroupAggregator total = new GroupAggregator(1);
+        accumulateWords(filterWords(ids), total, 0, scan);
+        Aggregate aggregate = total.get(0);
+        recordQuery(event, null, scanAccess(ids), aggregate.rowCount(), aggregate.rowCount(), 1);
+        return aggregate;
+    }
+
+    /**
+     * Seperti {@link #summarize}, tetapi dikelompokkan per nilai dimensi {@code groupBy}.
+     * Grup tanpa baris tidak disertakan; baris tanpa nilai dikelompokkan ke {@link #UNKNOWN}.
+     */
+    public Map<String, Aggregate> summarizeBy(Dimension groupBy, String month, String pillar, String productType,
+                                              String brandId, String merchantName) {
+        return summarizeBy(groupBy, month, pillar, productType, brandId, merchantName, ParallelScan.sequential());
+    }
+
+    Map<String, Aggregate> summarizeBy(Dimension groupBy, String month, String pillar, String productType,
+                                       String brandId, String merchantName, ParallelScan scan) {
+        Groups groups = groupBy(groupBy, month, pillar, productType, brandId, merchantName, scan);
+        Map<String, Aggregate> result = new LinkedHashMap<>();
+        if (groups != null) {
+            for (int slot = 0; slot <= groups.unknownSlot(); slot++) {
+                if (!groups.aggregates().isEmpty(slot)) {
+                    result.put(groups.key(slot), groups.aggregates().get(slot));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Agregat per nilai dimensi dalam akumulator primitif: slot = id kamus, {@code unknownSlot} untuk baris tanpa nilai.
+     * Dipakai langsung oleh ranking agar hasil partisi digabung tanpa map per partisi.
+     */
+    record Groups(StringDictionary dictionary, GroupAggregator aggregates, int unknownSlot) {
+
+        String key(int slot) {
+            return slot == unknownSlot ? UNKNOWN : dictionary.valueOf(slot);
+        }
+
+        private long rowCount() {
+            long rows = 0;
+            for (int slot = 0; slot <= unknownSlot; slot++) {
+                rows += aggregates.rowCount(slot);
+            }
+            return rows;
+        }
+
+        private int size() {
+            int size = 0;
+            for (int slot = 0; slot <= unknownSlot; slot++) {
+                if (!aggregates.isEmpty(slot)) {
+                    size++;
+                }
+            }
+            return size;
+        }
+    }
+
+    // Seperti summarizeBy, tetapi tanpa membangun map; null jika ada filter yang tidak cocok dengan nilai mana pun
+    Groups groupBy(Dimension groupBy, String month, String pillar, String productType, String brandId,
+                   String merchantName, ParallelScan scan) {
+        int[] ids = resolveFilter(month, pillar, productType, brandId, merchantName);
+        if (ids == null) {
+            return null;
+        }
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
+
+        StringDictionary dictionary = dictionary(groupBy);
+        int unknownSlot = dictionary.size();
+        if (cube != null && ids[F_MERCHANT] == ANY && groupBy != Dimension.MERCHANT_NAME) {
+            // Satu lookup cube per nilai grup (termasuk MISSING)
+            int field = filterField(groupBy);
+            int from = ids[field] == ANY ? StringDictionary.MISSING : ids[field];
+            int to = ids[field] == ANY ? dictionary.size() - 1 : ids[field];
+            GroupAggregator aggregates = new GroupAggregator(unknownSlot + 1);
+            int[] cell = ids.clone();
+            for (int id = from; id <= to; id++) {
+                cell[field] = id;
+                Aggregate aggregate = cube.lookup(cell[F_MONTH], cell[F_PILLAR], cell[F_PRODUCT_TYPE], cell[F_BRAND_ID]);
+                aggregates.add(id == StringDictionary.MISSING ? unknownSlot : id, aggregate.sumTpv(), aggregate.sumTpt(),
+                        aggregate.rowCount(), aggregate.minTpv(), aggregate.maxTpv());
+            }
+            Groups groups = new Groups(dictionary, aggregates, unknownSlot);
+            recordQuery(event, groupBy, QueryStats.Access.CUBE, 0, groups.rowCount(), groups.size());
+            return groups;
+        }
+
+        if (groupBy != Dimension.MERCHANT_NAME && unknownSlot <= KERNEL_GROUP_LIMIT) {
+            Groups groups = new Groups(dictionary, summarizeByKernel(groupBy, ids, scan), unknownSlot);
+            long matched = groups.rowCount();
+            recordQuery(event, groupBy, scanAccess(ids), matched, matched, groups.size());
+            return groups;
+        }
+
+        // Satu pass atas baris hasil filter; slot terakhir dipakai untuk baris tanpa nilai (Unknown)
+        IntColumn column = column(groupBy);
+        int[] rows = filterOrAll(ids);
+        int count = rows == null ? rowCount : rows.length;
+        GroupAggregator aggregates = scanFor(scan, unknownSlot + 1L).reduce(count, () -> new GroupAggregator(unknownSlot + 1),
+                (acc, from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        int row = rows == null ? i : rows[i];
+                        int id = column.get(row);
+                        acc.add(id == StringDictionary.MISSING ? unknownSlot : id, tpvCol.get(row), tptCol.get(row));
+                    }
+                }, GroupAggregator::mergeAll);
+        Groups groups = new Groups(dictionary, aggregates, unknownSlot);
+        recordQuery(event, groupBy, scanAccess(ids), count, count, groups.size());
+        return groups;
+    }
+
+    /**
+     * Seperti {@link #summarizeBy(Dimension, String, String, String, String, String)}, tetapi dikelompokkan
+     * per kombinasi nilai beberapa dimensi sekaligus (pivot). Key hasil berisi nilai dimensi dengan urutan
+     * {@code groupBy}; hasil diurutkan per dimensi mengikuti urutan kamus dengan {@link #UNKNOWN} paling akhir.
+     * Tanpa filter/grouping merchant_name dijawab dari rollup cube jika jumlah kombinasi tidak melebihi jumlah baris.
+     */
+    public Map<List<String>, Aggregate> summarizeBy(List<Dimension> groupBy, String month, String pillar,
+                                                    String productType, String brandId, String merchantName) {
+        return summarizeBy(groupBy, month, pillar, productType, brandId, merchantName, ParallelScan.sequential());
+    }
+
+    Map<List<String>, Aggregate> summarizeBy(List<Dimension> groupBy, String month, String pillar,
+                                             String productType, String brandId, String merchantName, ParallelScan scan) {
+        if (groupBy.isEmpty()) {
+            Aggregate total = summarize(month, pillar, productType, brandId, merchantName, scan);
+            return total.rowCount() == 0 ? Map.of() : Map.of(List.of(), total);
+        }
+        if (groupBy.size() == 1) {
+            Map<List<String>, Aggregate> result = new LinkedHashMap<>();
+            summarizeBy(groupBy.get(0), month, pillar, productType, brandId, merchantName, scan)
+                    .forEach((value, aggregate) -> result.put(List.of(value), aggregate));
+            return result;
+        }
+
+        int[] ids = resolveFilter(month, pillar, productType, brandId, merchantName);
+        if (ids == null) {
+            return Map.of();
+        }
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
+
+        // Key komposit mixed-radix: digit tiap dimensi = id kamus, dengan digit terakhir (size) untuk Unknown
+        int dimensions = groupBy.size();
+        IntColumn[] columns = new IntColumn[dimensions];
+        StringDictionary[] dictionaries = new StringDictionary[dimensions];
+        long[] radix = new long[dimensions];
+        long combinations = 1L;
+        for (int d = 0; d < dimensions; d++) {
+            columns[d] = column(groupBy.get(d));
+            dictionaries[d] = dictionary(groupBy.get(d));
+            radix[d] = dictionaries[d].size() + 1L;
+            try {
+                combinations = Math.multiplyExact(combinations, radix[d]);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Kombinasi group-by " + groupBy + " terlalu besar untuk dikelompokkan.");
+            }
+        }
+
+        boolean cubeEligible = cube != null && ids[F_MERCHANT] == ANY
+                && !groupBy.contains(Dimension.MERCHANT_NAME) && combinations <= rowCount;
+        Map<List<String>, Aggregate> result = new LinkedHashMap<>();
+        if (cubeEligible) {
+            summarizeFromCube(groupBy, ids, radix, combinations, result);
+            recordQuery(event, groupBy, QueryStats.Access.CUBE, 0, matchedRows(result), result.size());
+            return result;
+        }
+
+        // Satu pass atas baris hasil filter; array padat jika kombinasi kecil, selain itu hash key -> slot
+        int[] rows = filterOrAll(ids);
+        int count = rows == null ? rowCount : rows.length;
+        // Paralel hanya untuk grup padat yang kecil; menggabung hash map besar per chunk lebih mahal dari scan-nya
+        long groupCount = combinations;
+        boolean dense = groupCount <= DENSE_GROUP_LIMIT;
+        SlotGroups accumulated = scanFor(scan, groupCount).reduce(count, () -> new SlotGroups(dense, groupCount), (acc, from, to) -> {
+            for (int i = from; i < to; i++) {
+                int row = rows == null ? i : rows[i];
+                long key = 0L;
+                for (int d = 0; d < dimensions; d++) {
+                    int id = columns[d].get(row);
+                    key = key * radix[d] + (id == StringDictionary.MISSING ? radix[d] - 1 : id);
+                }
+                acc.add(key, tpvCol.get(row), tptCol.get(row));
+            }
+        }, SlotGroups::mergeAll);
+        LongSlotMap slots = accumulated.slots;
+        GroupAggregator groups = accumulated.groups;
+
+        if (dense) {
+            for (int slot = 0; slot < combinations; slot++) {
+                if (!groups.isEmpty(slot)) {
+                    result.put(decodeGroupKey(slot, radix, dictionaries), groups.get(slot));
+                }
+            }
+        } else {
+            // Urutkan berdasarkan key komposit agar urutan sama dengan jalur array padat
+            long[][] keyed = new long[slots.size()][];
+            for (int slot = 0; slot < slots.size(); slot++) {
+                keyed[slot] = new long[]{slots.keyAt(slot), slot};
+            }
+            Arrays.sort(keyed, Comparator.comparingLong(entry -> entry[0]));
+            for (long[] entry : keyed) {
+                result.put(decodeGroupKey(entry[0], radix, dictionaries), groups.get((int) entry[1]));
+            }
+        }
+        recordQuery(event, groupBy, scanAccess(ids), count, count, result.size());
+        return result;
+    }
+
+    // Grouping dengan sedikit nilai: per grup, bitset hasil filter di-AND dengan index grup lalu diagregasi kernel.
+    // Baris yang tidak masuk grup mana pun adalah baris tanpa nilai (Unknown).
+    private GroupAggregator summarizeByKernel(Dimension groupBy, int[] ids, ParallelScan scan) {
+        StringDictionary dictionary = dictionary(groupBy);
+        RowBitmap[] index = index(groupBy);
+        int field = filterField(groupBy);
+        long[] filtered = filterWords(ids);
+        long[] remaining = filtered.clone();
+
+        int unknownSlot = dictionary.size();
+        GroupAggregator groups = new GroupAggregator(unknownSlot + 1);
+        for (int id = 0; id < unknownSlot; id++) {
+            if (ids[field] != ANY && ids[field] != id) {
+                continue;
+            }
+            long[] words = index[id].toWords(0, rowCount);
+            for (int w = 0; w < words.length; w++) {
+                words[w] &= filtered[w];
+                remaining[w] &= ~words[w];
+            }
+            accumulateWords(words, groups, id, scan);
+        }
+        if (ids[field] == ANY) {
+            accumulateWords(remaining, groups, unknownSlot, scan);
+        }
+        return groups;
+    }
+
+    // Mencatat query partisi yang selesai ke QueryStats dan event JFR (groupBy: null, Dimension, atau List<Dimension>)
+    private void recordQuery(AggregationEvent event, Object groupBy, QueryStats.Access access, long scanned, long matched,
+                             int groups) {
+        QueryStats.record(access, scanned, matched);
+        if (event.shouldCommit()) {
+            event.access = access.name();
+            event.groupBy = groupBy == null ? null : groupBy.toString();
+            event.partitionRows = rowCount;
+            event.rowsScanned = scanned;
+            event.rowsMatched = matched;
+            event.groups = groups;
+            event.commit();
+        }
+    }
+
+    // Jumlah baris yang tercakup hasil grouping (untuk QueryStats)
+    private static long matchedRows(Map<?, Aggregate> result) {
+        long rows = 0;
+        for (Aggregate aggregate : result.values()) {
+            rows += aggregate.rowCount();
+        }
+        return rows;
+    }
+
+    // Agregasi baris bitset ke slot lewat kernel; word dipecah ke chunk paralel untuk data besar
+    private void accumulateWords(long[] words, GroupAggregator groups, int slot, ParallelScan scan) {
+        GroupAggregator part = scan.reduce(words.length, 64, () -> new GroupAggregator(1),
+                (acc, from, to) -> KERNEL.accumulate(words, from, to, 0, tpvCol, tptCol, acc, 0),
+                GroupAggregator::mergeAll);
+        groups.merge(slot, part, 0);
+    }
+
+    /**
+     * Akumulator grouping multi-dimensi: slot = key komposit (padat), atau slot dari hash key -> slot.
+     */
+    private static final class SlotGroups {
+        private final LongSlotMap slots;
+        private final GroupAggregator groups;
+
+        SlotGroups(boolean dense, long combinations) {
+            this.slots = dense ? null : new LongSlotMap(1024);
+            this.groups = new GroupAggregator(dense ? (int) combinations : 1024);
+        }
+
+        void add(long key, long tpv, long tpt) {
+            groups.add(slots == null ? (int) key : slots.slotOf(key), tpv, tpt);
+        }
+
+        SlotGroups mergeAll(SlotGroups other) {
+            if (slots == null) {
+                groups.mergeAll(other.groups);
+            } else {
+                for (int slot = 0; slot < other.slots.size(); slot++) {
+                    groups.merge(slots.slotOf(other.slots.keyAt(slot)), other.groups, slot);
+                }
+            }
+            return this;
+        }
+    }
+
+    // Scan paralel hanya jika akumulator per chunk ({@code groups} slot) cukup kecil untuk diduplikasi
+    private static ParallelScan scanFor(ParallelScan scan, long groups) {
+        return groups <= PARALLEL_GROUP_LIMIT ? scan : ParallelScan.sequential();
+    }
+
+    // Enumerasi semua kombinasi grup sebagai lookup cube (dimensi yang difilter hanya punya satu nilai)
+    private void summarizeFromCube(List<Dimension> groupBy, int[] ids, long[] radix, long combinations,
+                                   Map<List<String>, Aggregate> result) {
+        StringDictionary[] dictionaries = new StringDictionary[groupBy.size()];
+        int[] fields = new int[groupBy.size()];
+        for (int d = 0; d < fields.length; d++) {
+            dictionaries[d] = dictionary(groupBy.get(d));
+            fields[d] = filterField(groupBy.get(d));
+        }
+        int[] cell = ids.clone();
+        for (long key = 0; key < combinations; key++) {
+            long rest = key;
+            boolean matchesFilter = true;
+            for (int d = fields.length - 1; d >= 0; d--) {
+                int digit = (int) (rest % radix[d]);
+                rest /= radix[d];
+                int id = digit == radix[d] - 1 ? StringDictionary.MISSING : digit;
+                if (ids[fields[d]] != ANY && ids[fields[d]] != id) {
+                    matchesFilter = false;
+                    break;
+                }
+                cell[fields[d]] = id;
+            }
+            if (!matchesFilter) {
+                continue;
+            }
+            Aggregate aggregate = cube.lookup(cell[F_MONTH], cell[F_PILLAR], cell[F_PRODUCT_TYPE], cell[F_BRAND_ID]);
+            if (aggregate.rowCount() > 0) {
+                result.put(decodeGroupKey(key, radix, dictionaries), aggregate);
+            }
+        }
+    }
+
+    private static List<String> decodeGroupKey(long key, long[] radix, StringDictionary[] dictionaries) {
+        String[] values = new String[radix.length];
+        for (int d = radix.length - 1; d >= 0; d--) {
+            int digit = (int) (key % radix[d]);
+            key /= radix[d];
+            values[d] = digit == radix[d] - 1 ? UNKNOWN : dictionaries[d].valueOf(digit);
+        }
+        return List.of(values);
+    }
+
+    private static int filterField(Dimension dimension) {
+        return switch (dimension) {
+            case MONTH -> F_MONTH;
+            case PILLAR -> F_PILLAR;
+            case PRODUCT_TYPE -> F_PRODUCT_TYPE;
+            case BRAND_ID -> F_BRAND_ID;
+            case MERCHANT_NAME -> F_MERCHANT;
+        };
+    }
+
+    /**
+     * Menerjemahkan nilai filter menjadi id kamus (atau ANY jika tanpa filter).
+     * Mengembalikan null jika ada nilai filter yang tidak dikenal, karena tidak mungkin ada baris yang cocok.
+     */
+    private int[] resolveFilter(String month, String pillar, String productType, String brandId, String merchantName) {
+        int[] ids = {
+                month == null ? ANY : monthId(month),
+                isBlank(pillar) ? ANY : pillars.idOf(pillar),
+                isBlank(productType) ? ANY : productTypes.idOf(productType),
+                isBlank(brandId) ? ANY : brandIds.idOf(brandId),
+                isBlank(merchantName) ? ANY : merchantKeys.idOf(merchantKey(merchantName))
+        };
+        for (int id : ids) {
+            if (id == StringDictionary.MISSING) {
+                return null;
+            }
+        }
+        return ids;
+    }
+
+    // Id kamus bulan; label yang tidak persis sama dicocokkan lewat key bulan (mis. "2024-10" untuk "Oct-24").
+    // Builder menyimpan label kanonik, sehingga setiap key bulan hanya punya satu id kamus.
+    private int monthId(String month) {
+        int id = months.idOf(month);
+        if (id != StringDictionary.MISSING) {
+            return id;
+        }
+        int key = Months.keyOrNone(month);
+        if (key != Months.NO_KEY) {
+            for (int candidate = 0; candidate < monthKeys.length; candidate++) {
+                if (monthKeys[candidate] == key) {
+                    return candidate;
+                }
+            }
+        }
+        return StringDictionary.MISSING;
+    }
+
+    // Id baris yang cocok dengan filter; null jika tidak ada filter (semua baris) agar tidak perlu membuat array id baris
+    private int[] filterOrAll(int[] ids) {
+        RowBitmap bitmap = filterBitmap(ids);
+        return bitmap == null ? null : bitmap.toArray();
+    }
+
+    // Baris hasil filter sebagai bitset per word atas semua baris
+    private long[] filterWords(int[] ids) {
+        RowBitmap bitmap = filterBitmap(ids);
+        return bitmap == null ? RowBitmap.rangeWords(0, rowCount) : bitmap.toWords(0, rowCount);
+    }
+
+    // INDEX jika baris dipilih lewat bitmap index, FULL_SCAN jika semua baris (partisi bulan) dibaca
+    private QueryStats.Access scanAccess(int[] ids) {
+        boolean indexed = filtersMonth(ids) || ids[F_PILLAR] != ANY
+                || ids[F_PRODUCT_TYPE] != ANY || ids[F_BRAND_ID] != ANY || ids[F_MERCHANT] != ANY;
+        return indexed ? QueryStats.Access.INDEX : QueryStats.Access.FULL_SCAN;
+    }
+
+    // Filter bulan yang mencakup semua baris (store satu bulan dari partisi) tidak perlu di-AND sebagai bitmap
+    private boolean filtersMonth(int[] ids) {
+        return ids[F_MONTH] != ANY && monthIndex[ids[F_MONTH]].cardinality() != rowCount;
+    }
+
+    // AND semua bitmap filter (bulan hanya jika tidak mencakup semua baris); null jika tidak ada filter bitmap
+    private RowBitmap filterBitmap(int[] ids) {
+        int monthId = ids[F_MONTH];
+        int pillarId = ids[F_PILLAR];
+        int productTypeId = ids[F_PRODUCT_TYPE];
+        int brandIdId = ids[F_BRAND_ID];
+        int merchantKeyId = ids[F_MERCHANT];
+
+        RowBitmap[] selected = new RowBitmap[5];
+        int n = 0;
+        if (filtersMonth(ids)) selected[n++] = monthIndex[monthId];
+        if (pillarId != ANY) selected[n++] = pillarIndex[pillarId];
+        if (productTypeId != ANY) selected[n++] = productTypeIndex[productTypeId];
+        if (brandIdId != ANY) selected[n++] = brandIdIndex[brandIdId];
+        if (merchantKeyId != ANY) selected[n++] = merchantKeyIndex[merchantKeyId];
+
+        if (n == 0) {
+            return null;
+        }
+
+        FilterEvaluationEvent event = new FilterEvaluationEvent();
+        event.begin();
+        // AND dimulai dari bitmap paling selektif agar hasil antara tetap kecil
+        Arrays.sort(selected, 0, n, Comparator.comparingInt(RowBitmap::cardinality));
+        RowBitmap result = selected[0];
+        for (int i = 1; i < n && !result.isEmpty(); i++) {
+            result = result.and(selected[i]);
+        }
+        if (event.shouldCommit()) {
+            event.filters = filterCardinalities(ids);
+            event.filterCount = n;
+            event.partitionRows = rowCount;
+            event.matchedRows = result.cardinality();
+            event.commit();
+        }
+        return result;
+    }
+
+    // Untuk event JFR: kardinalitas bitmap tiap filter yang dipakai, mis. "product_type=1200 merchant_name=3"
+    private String filterCardinalities(int[] ids) {
+        StringBuilder filters = new StringBuilder();
+        if (filtersMonth(ids)) filters.append(" month=").append(monthIndex[ids[F_MONTH]].cardinality());
+        if (ids[F_PILLAR] != ANY) filters.append(" pillar=").append(pillarIndex[ids[F_PILLAR]].cardinality());
+        if (ids[F_PRODUCT_TYPE] != ANY) filters.append(" product_type=").append(productTypeIndex[ids[F_PRODUCT_TYPE]].cardinality());
+        if (ids[F_BRAND_ID] != ANY) filters.append(" brand_id=").append(brandIdIndex[ids[F_BRAND_ID]].cardinality());
+        if (ids[F_MERCHANT] != ANY) filters.append(" merchant_name=").append(merchantKeyIndex[ids[F_MERCHANT]].cardinality());
+        return filters.substring(1);
+    }
+
+    public static double tpvToDouble(long tpvMinorUnits) {
+        return FixedPoint.toDouble(tpvMinorUnits, TPV_FRACTION_DIGITS);
+    }
+
+    private IntColumn column(Dimension dimension) {
+        return switch (dimension) {
+            case MONTH -> monthCol;
+            case PILLAR -> pillarCol;
+            case PRODUCT_TYPE -> productTypeCol;
+            case BRAND_ID -> brandIdCol;
+            case MERCHANT_NAME -> merchantNameCol;
+        };
+    }
+
+    // Bitmap index per id kamus; merchant_name diindeks lewat key lowercase sehingga tidak punya index per nilai
+    private RowBitmap[] index(Dimension dimension) {
+        return switch (dimension) {
+            case MONTH -> monthIndex;
+            case PILLAR -> pillarIndex;
+            case PRODUCT_TYPE -> productTypeIndex;
+            case BRAND_ID -> brandIdIndex;
+            case MERCHANT_NAME -> throw new IllegalArgumentException("merchant_name tidak memiliki bitmap index per nilai");
+        };
+    }
+
+    private StringDictionary dictionary(Dimension dimension) {
+        return switch (dimension) {
+            case MONTH -> months;
+            case PILLAR -> pillars;
+            case PRODUCT_TYPE -> productTypes;
+            case BRAND_ID -> brandIds;
+            case MERCHANT_NAME -> merchantNames;
+        };
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    static String merchantKey(String merchantName) {
+        return merchantName == null ? null : merchantName.toLowerCase(Locale.ROOT);
+    }
+
+    // =========================
+    // Builder
+    // =========================
+
+    public static final class Builder implements RowSink {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final StringDictionary months;
+        private final StringDictionary pillars;
+        private final StringDictionary productTypes;
+        private final StringDictionary brandIds;
+        private final StringDictionary merchantNames;
+        private final StringDictionary merchantKeys;
+
+        private int size;
+        private int[] monthCol = new int[INITIAL_CAPACITY];
+        private int[] pillarCol = new int[INITIAL_CAPACITY];
+        private int[] productTypeCol = new int[INITIAL_CAPACITY];
+        private int[] brandIdCol = new int[INITIAL_CAPACITY];
+        private int[] merchantNameCol = new int[INITIAL_CAPACITY];
+        private int[] merchantKeyCol = new int[INITIAL_CAPACITY];
+        private long[] tpvCol = new long[INITIAL_CAPACITY];
+        private long[] tptCol = new long[INITIAL_CAPACITY];
+        // Cache label -> label kanonik; jumlah label sedikit sehingga parse cukup sekali per label
+        private final Map<String, String> canonicalMonths = new HashMap<>();
+
+        private Builder() {
+            this(new StringDictionary[]{
+                    new StringDictionary(), new StringDictionary(), new StringDictionary(),
+                    new StringDictionary(), new StringDictionary(), new StringDictionary()
+            });
+        }
+
+        private Builder(StringDictionary[] dictionaries) {
+            this.months = dictionaries[0];
+            this.pillars = dictionaries[1];
+            this.productTypes = dictionaries[2];
+            this.brandIds = dictionaries[3];
+            this.merchantNames = dictionaries[4];
+            this.merchantKeys = dictionaries[5];
+        }
+
+        @Override
+        public void addRow(String month, String pillar, String productType, String brandId,
+                              String merchantName, long tpvMinorUnits, long tpt) {
+            ensureCapacity(size + 1);
+            // Bulan disimpan dengan label kanonik agar "2024-10" dan "Oct-24" menjadi satu id kamus
+            monthCol[size] = months.encode(month == null ? null : canonicalMonths.computeIfAbsent(month, Months::canonical));
+            pillarCol[size] = pillars.encode(pillar);
+            productTypeCol[size] = productTypes.encode(productType);
+            brandIdCol[size] = brandIds.encode(brandId);
+            merchantNameCol[size] = merchantNames.encode(merchantName);
+            merchantKeyCol[size] = merchantKeys.encode(merchantKey(merchantName));
+            tpvCol[size] = tpvMinorUnits;
+            tptCol[size] = tpt;
+            size++;
+        }
+
+        public SmireColumnStore build() {
+            return new SmireColumnStore(
+                    new StringDictionary[]{months, pillars, productTypes, brandIds, merchantNames, merchantKeys},
+                    new IntColumn[]{
+                            IntColumn.heap(Arrays.copyOf(monthCol, size)),
+                            IntColumn.heap(Arrays.copyOf(pillarCol, size)),
+                            IntColumn.heap(Arrays.copyOf(productTypeCol, size)),
+                            IntColumn.heap(Arrays.copyOf(brandIdCol, size)),
+                            IntColumn.heap(Arrays.copyOf(merchantNameCol, size)),
+                            IntColumn.heap(Arrays.copyOf(merchantKeyCol, size))
+                    },
+                    LongColumn.heap(Arrays.copyOf(tpvCol, size)),
+                    LongColumn.heap(Arrays.copyOf(tptCol, size)));
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= monthCol.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, monthCol.length * 2);
+            monthCol = Arrays.copyOf(monthCol, newCapacity);
+            pillarCol = Arrays.copyOf(pillarCol, newCapacity);
+            productTypeCol = Arrays.copyOf(productTypeCol, newCapacity);
+            brandIdCol = Arrays.copyOf(brandIdCol, newCapacity);
+            merchantNameCol = Arrays.copyOf(merchantNameCol, newCapacity);
+            merchantKeyCol = Arrays.copyOf(merchantKeyCol, newCapacity);
+            tpvCol = Arrays.copyOf(tpvCol, newCapacity);
+            tptCol = Arrays.copyOf(tptCol, newCapacity);
+        }
+    }
+
+    // =========================
+    // Appender
+    // =========================
+
+    /**
+     * Menambah baris baru ke salinan store secara inkremental: kolom disalin lalu diperpanjang,
+     * kamus di-copy-on-write, bitmap index hanya dibangun ulang untuk nilai yang tersentuh baris baru
+     * (container lama dipakai bersama), dan rollup cube diperbarui hanya dengan baris baru.
+     */
+    public static final class Appender implements RowSink {
+
+        private final SmireColumnStore base;
+        private final Builder delta;
+
+        private Appender(SmireColumnStore base) {
+            this.base = base;
+            StringDictionary[] dictionaries = base.dictionaries();
+            for (int d = 0; d < dictionaries.length; d++) {
+                dictionaries[d] = dictionaries[d].copy();
+            }
+            this.delta = new Builder(dictionaries);
+        }
+
+        @Override
+        public void addRow(String month, String pillar, String productType, String brandId,
+                           String merchantName, long tpvMinorUnits, long tpt) {
+            delta.addRow(month, pillar, productType, brandId, merchantName, tpvMinorUnits, tpt);
+        }
+
+        public int size() {
+            return delta.size;
+        }
+
+        // Bulan yang mendapat baris baru; dipakai untuk invalidasi cache yang bergantung pada bulan tersebut
+        public Set<String> affectedMonths() {
+            Set<String> affected = new TreeSet<>();
+            for (int i = 0; i < delta.size; i++) {
+                String month = delta.months.valueOf(delta.monthCol[i]);
+                if (month != null) {
+                    affected.add(month);
+                }
+            }
+            return affected;
+        }
+
+        public SmireColumnStore build() {
+            if (delta.size == 0) {
+                return base;
+            }
+            int from = base.rowCount;
+            int to = from + delta.size;
+            StringDictionary[] dictionaries = {delta.months, delta.pillars, delta.productTypes,
+                    delta.brandIds, delta.merchantNames, delta.merchantKeys};
+
+            IntColumn[] baseColumns = base.intColumns();
+            int[][] deltaColumns = {delta.monthCol, delta.pillarCol, delta.productTypeCol,
+                    delta.brandIdCol, delta.merchantNameCol, delta.merchantKeyCol};
+            IntColumn[] columns = new IntColumn[baseColumns.length];
+            for (int c = 0; c < columns.length; c++) {
+                int[] merged = new int[to];
+                baseColumns[c].copyTo(merged);
+                System.arraycopy(deltaColumns[c], 0, merged, from, delta.size);
+                columns[c] = IntColumn.heap(merged);
+            }
+            LongColumn tpv = concat(base.tpvCol, delta.tpvCol, to);
+            LongColumn tpt = concat(base.tptCol, delta.tptCol, to);
+
+            // Index: kolom 0..3 dan merchant key (kolom 5) sesuai urutan index store
+            RowBitmap[][] indexes = {
+                    extendIndex(base.monthIndex, columns[0], from, to, dictionaries[0].size()),
+                    extendIndex(base.pillarIndex, columns[1], from, to, dictionaries[1].size()),
+                    extendIndex(base.productTypeIndex, columns[2], from, to, dictionaries[2].size()),
+                    extendIndex(base.brandIdIndex, columns[3], from, to, dictionaries[3].size()),
+                    extendIndex(base.merchantKeyIndex, columns[5], from, to, dictionaries[5].size())
+            };
+
+            RollupCube cube = base.cube == null ? null : base.cube.withRows(from, to,
+                    columns[0], columns[1], columns[2], columns[3], tpv, tpt,
+                    dictionaries[0].size(), dictionaries[1].size(), dictionaries[2].size(), dictionaries[3].size());
+
+            return new SmireColumnStore(dictionaries, columns, tpv, tpt, indexes, cube);
+        }
+
+        private static LongColumn concat(LongColumn baseColumn, long[] deltaValues, int to) {
+            long[] merged = new long[to];
+            baseColumn.copyTo(merged);
+            System.arraycopy(deltaValues, 0, merged, baseColumn.size(), to - baseColumn.size());
+            return LongColumn.heap(merged);
+        }
+
+        private static RowBitmap[] extendIndex(RowBitmap[] baseIndex, IntColumn column, int from, int to, int cardinality) {
+            RowBitmap[] index = Arrays.copyOf(baseIndex, cardinality);
+            RowBitmap.Builder[] builders = new RowBitmap.Builder[cardinality];
+            for (int row = from; row < to; row++) {
+                int id = column.get(row);
+                if (id != StringDictionary.MISSING) {
+                    if (builders[id] == null) {
+                        builders[id] = id < baseIndex.length ? RowBitmap.Builder.from(baseIndex[id]) : new RowBitmap.Builder();
+                    }
+                    builders[id].add(row);
+                }
+            }
+            for (int id = 0; id < cardinality; id++) {
+                if (builders[id] != null) {
+                    index[id] = builders[id].build();
+                } else if (index[id] == null) {
+                    index[id] = RowBitmap.EMPTY;
+                }
+            }
+            return index;
+        }
+    }
+}
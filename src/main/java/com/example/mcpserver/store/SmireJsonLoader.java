@@ -0,0 +1,115 @@
+package com.example.mcpserver.store;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Loader streaming untuk file data SMIRE (array JSON berisi objek baris, atau NDJSON satu objek per baris).
+ * File dibaca token demi token langsung ke builder partisi bulan ({@link SmirePartitionedStore.Builder}) tanpa membuat Map perantara,
+ * sehingga puncak heap saat startup kira-kira sebesar store itu sendiri.
+ */
+public final class SmireJsonLoader {
+
+    /**
+     * Hasil load: store beserta jumlah nilai angka tidak valid per kolom (dihitung sebagai 0).
+     */
+    public record LoadResult(SmirePartitionedStore store, Map<String, Integer> malformedCounts) {
+    }
+
+    private SmireJsonLoader() {
+    }
+
+    public static LoadResult load(JsonParser parser) throws IOException {
+        SmirePartitionedStore.Builder builder = SmirePartitionedStore.builder();
+        Map<String, Integer> malformedCounts = readRows(parser, builder);
+        return new LoadResult(builder.build(), malformedCounts);
+    }
+
+    /**
+     * Membaca semua baris ke {@code sink}. Input boleh berupa array JSON atau rangkaian objek (NDJSON).
+     *
+     * @return jumlah nilai angka tidak valid per kolom (dihitung sebagai 0)
+     */
+    public static Map<String, Integer> readRows(JsonParser parser, SmireColumnStore.RowSink sink) throws IOException {
+        Map<String, Integer> malformedCounts = new TreeMap<>();
+
+        JsonToken token = parser.nextToken();
+        boolean array = token == JsonToken.START_ARRAY;
+        if (array) {
+            token = parser.nextToken();
+        } else if (token != JsonToken.START_OBJECT && token != null) {
+            throw new IOException("Format data tidak valid: diharapkan array JSON atau NDJSON di " + parser.currentLocation());
+        }
+
+        while (token == JsonToken.START_OBJECT) {
+            readRow(parser, sink, malformedCounts);
+            token = parser.nextToken();
+        }
+
+        if (array ? token != JsonToken.END_ARRAY : token != null) {
+            throw new IOException("Format data tidak valid: diharapkan objek baris di " + parser.currentLocation());
+        }
+        return malformedCounts;
+    }
+
+    private static void readRow(JsonParser parser, SmireColumnStore.RowSink sink, Map<String, Integer> malformedCounts)
+            throws IOException {
+        String month = null;
+        String pillar = null;
+        String productType = null;
+        String brandId = null;
+        String merchantName = null;
+        long tpv = 0L;
+        long tpt = 0L;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "month" -> month = text(parser, value);
+                case "pillar" -> pillar = text(parser, value);
+                case "product_type" -> productType = text(parser, value);
+                case "brand_id" -> brandId = text(parser, value);
+                case "merchant_name" -> merchantName = text(parser, value);
+                case "tpv" -> tpv = number(parser, value, SmireColumnStore.TPV_FRACTION_DIGITS, "tpv", malformedCounts);
+                case "tpt" -> tpt = number(parser, value, 0, "tpt", malformedCounts);
+                default -> parser.skipChildren();
+            }
+        }
+        sink.addRow(month, pillar, productType, brandId, merchantName, tpv, tpt);
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value.isScalarValue()) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    // Membersihkan angka (misalnya "1,000,000.50") menjadi long fixed-point; nilai tidak valid dihitung per kolom
+    private static long number(JsonParser parser, JsonToken value, int fractionDigits, String column,
+                               Map<String, Integer> malformedCounts) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return 0L;
+        }
+        if (value.isScalarValue()) {
+            try {
+                return FixedPoint.parse(parser.getText(), fractionDigits);
+            } catch (NumberFormatException e) {
+                // jatuh ke penghitungan malformed di bawah
+            }
+        } else {
+            parser.skipChildren();
+        }
+        malformedCounts.merge(column, 1, Integer::sum);
+        return 0L;
+    }
+}
@@ -0,0 +1,653 @@
+package com.example.mcpserver.store;
+
+import com.example.mcpserver.store.SmireColumnStore.Dimension;
+import com.example.mcpserver.store.SmireColumnStore.Ranking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dataset SMIRE yang dipartisi per bulan. Setiap partisi adalah {@link SmireColumnStore} sendiri
+ * (segmen kolom, kamus, bitmap index dan rollup cube) sehingga query dengan filter bulan langsung
+ * dipangkas ke partisi bulan tersebut sebelum menyentuh baris apa pun, dan waktu query tidak tumbuh
+ * linear dengan panjang histori. Baris tanpa bulan (atau bulan yang tidak bisa di-parse) masuk ke satu partisi
+ * "unknown" tersendiri.
+ * Partisi yang berasal dari snapshot dimuat secara lazy saat pertama kali dibutuhkan; jika jumlah partisi
+ * yang dimuat melebihi batas residensi, partisi yang paling lama tidak diakses dilepas dari memori
+ * (datanya tetap di file snapshot dan dimuat ulang saat dibutuhkan lagi).
+ * Scan baris di dalam partisi yang besar dapat dijalankan paralel lewat {@link ParallelScan} (lihat {@link #withScan}).
+ * Instance bersifat immutable; append menghasilkan instance baru yang berbagi partisi yang tidak berubah.
+ */
+public final class SmirePartitionedStore {
+
+    // Partisi per key bulan (Months.key), terurut naik
+    private final NavigableMap<Integer, Partition> partitions;
+    // Baris tanpa bulan yang valid; null jika tidak ada
+    private final Partition unknown;
+    private final Residency residency;
+    private final ParallelScan scan;
+    private final int rowCount;
+
+    SmirePartitionedStore(NavigableMap<Integer, Partition> partitions, Partition unknown, Residency residency) {
+        this(partitions, unknown, residency, ParallelScan.sequential());
+    }
+
+    private SmirePartitionedStore(NavigableMap<Integer, Partition> partitions, Partition unknown, Residency residency,
+                                  ParallelScan scan) {
+        this.partitions = partitions;
+        this.unknown = unknown;
+        this.residency = residency;
+        this.scan = scan;
+        int rows = unknown == null ? 0 : unknown.rowCount;
+        for (Partition partition : partitions.values()) {
+            rows += partition.rowCount;
+        }
+        this.rowCount = rows;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static SmirePartitionedStore empty() {
+        return new SmirePartitionedStore(new TreeMap<>(), null, new Residency(0));
+    }
+
+    // Instance yang sama (berbagi partisi) dengan scan baris memakai eksekusi paralel yang diberikan
+    public SmirePartitionedStore withScan(ParallelScan scan) {
+        return new SmirePartitionedStore(partitions, unknown, residency, scan);
+    }
+
+    /**
+     * Appender untuk menambah baris baru; hanya partisi bulan yang tersentuh yang disalin dan diperbarui.
+     */
+    public Appender appender() {
+        return new Appender(this);
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public boolean isEmpty() {
+        return rowCount == 0;
+    }
+
+    public int partitionCount() {
+        return partitions.size() + (unknown == null ? 0 : 1);
+    }
+
+    // Jumlah partisi yang sedang dimuat di memori
+    public int residentPartitionCount() {
+        int resident = unknown != null && unknown.isLoaded() ? 1 : 0;
+        for (Partition partition : partitions.values()) {
+            if (partition.isLoaded()) {
+                resident++;
+            }
+        }
+        return resident;
+    }
+
+    // true jika partisi dibaca sebagai view memory-mapped atas snapshot
+    public boolean isOffHeap() {
+        for (Partition partition : allPartitions()) {
+            if (partition.mapped) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Bulan yang memiliki partisi, terurut naik (tanpa memuat partisi)
+    public List<YearMonth> months() {
+        List<YearMonth> months = new ArrayList<>(partitions.size());
+        for (int key : partitions.keySet()) {
+            months.add(Months.fromKey(key));
+        }
+        return months;
+    }
+
+    // =========================
+    // Query
+    // =========================
+
+    /**
+     * Lihat {@link SmireColumnStore#summarize}; dengan filter bulan hanya partisi bulan tersebut yang dibaca.
+     */
+    public Aggregate summarize(String month, String pillar, String productType, String brandId, String merchantName) {
+        Aggregate total = Aggregate.ZERO;
+        for (Partition partition : prune(month)) {
+            SmireColumnStore store = partition.pin(residency);
+            try {
+                total = total.plus(store.summarize(month, pillar, productType, brandId, merchantName, scan));
+            } finally {
+                partition.unpin(residency);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Lihat {@link SmireColumnStore#summarizeBy(Dimension, String, String, String, String, String)}.
+     * Hasil partisi digabung dengan urutan partisi (bulan naik); {@link SmireColumnStore#UNKNOWN} paling akhir.
+     */
+    public Map<String, Aggregate> summarizeBy(Dimension groupBy, String month, String pillar, String productType,
+                                              String brandId, String merchantName) {
+        Map<String, Aggregate> result = new LinkedHashMap<>();
+        for (Partition partition : prune(month)) {
+            SmireColumnStore store = partition.pin(residency);
+            try {
+                store.summarizeBy(groupBy, month, pillar, productType, brandId, merchantName, scan)
+                        .forEach((key, aggregate) -> result.merge(key, aggregate, Aggregate::plus));
+            } finally {
+                partition.unpin(residency);
+            }
+        }
+        Aggregate unknownGroup = result.remove(SmireColumnStore.UNKNOWN);
+        if (unknownGroup != null) {
+            result.put(SmireColumnStore.UNKNOWN, unknownGroup);
+        }
+        return result;
+    }
+
+    /**
+     * Lihat {@link SmireColumnStore#summarizeBy(List, String, String, String, String, String)}.
+     * Hasil partisi digabung lalu diurutkan per dimensi mengikuti urutan kemunculan, dengan Unknown paling akhir.
+     */
+    public Map<List<String>, Aggregate> summarizeBy(List<Dimension> groupBy, String month, String pillar,
+                                                    String productType, String brandId, String merchantName) {
+        Map<List<String>, Aggregate> merged = new LinkedHashMap<>();
+        for (Partition partition : prune(month)) {
+            SmireColumnStore store = partition.pin(residency);
+            try {
+                store.summarizeBy(groupBy, month, pillar, productType, brandId, merchantName, scan)
+                        .forEach((key, aggregate) -> merged.merge(key, aggregate, Aggregate::plus));
+            } finally {
+                partition.unpin(residency);
+            }
+        }
+        if (groupBy.isEmpty()) {
+            return merged;
+        }
+
+        // Peringkat kemunculan pertama per posisi dimensi
+        List<Map<String, Integer>> seen = new ArrayList<>();
+        for (int d = 0; d < groupBy.size(); d++) {
+            seen.add(new HashMap<>());
+        }
+        for (List<String> key : merged.keySet()) {
+            for (int d = 0; d < key.size(); d++) {
+                String value = key.get(d);
+                Map<String, Integer> ranks = seen.get(d);
+                ranks.putIfAbsent(value, SmireColumnStore.UNKNOWN.equals(value) ? Integer.MAX_VALUE : ranks.size());
+            }
+        }
+        List<Map.Entry<List<String>, Aggregate>> entries = new ArrayList<>(merged.entrySet());
+        entries.sort((a, b) -> {
+            for (int d = 0; d < groupBy.size(); d++) {
+                int compared = Integer.compare(seen.get(d).get(a.getKey().get(d)), seen.get(d).get(b.getKey().get(d)));
+                if (compared != 0) {
+                    return compared;
+                }
+            }
+            return 0;
+        });
+        Map<List<String>, Aggregate> result = new LinkedHashMap<>();
+        for (Map.Entry<List<String>, Aggregate> entry : entries) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Mengembalikan {@code limit} grup teratas (atau terbawah jika {@code ascending}) berdasarkan {@code ranking}
+     * atas rentang bulan [fromMonth, toMonth]. Hanya partisi dalam rentang yang dibaca, masing-masing dalam satu pass;
+     * seleksi memakai heap berukuran {@code limit} sehingga tidak perlu mengurutkan semua grup.
+     * Untuk {@link Ranking#GROWTH}, grup tanpa TPV di bulan awal tidak diikutkan karena pertumbuhannya tidak terdefinisi.
+     */
+    public List<RankedGroup> rank(Dimension groupBy, YearMonth fromMonth, YearMonth toMonth, String pillar,
+                                  String productType, Ranking ranking, int limit, boolean ascending) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        int fromKey = Months.key(fromMonth);
+        int toKey = Months.key(toMonth);
+
+        // Grup digabung lintas partisi ke slot global (satu slot per nilai grup) dalam akumulator primitif;
+        // first/last hanya diisi dari partisi month_from dan month_to untuk ranking pertumbuhan
+        Map<String, Integer> slots = new HashMap<>();
+        List<String> keys = new ArrayList<>();
+        GroupAggregator totals = new GroupAggregator(16);
+        GroupAggregator firsts = new GroupAggregator(16);
+        GroupAggregator lasts = new GroupAggregator(16);
+        NavigableMap<Integer, Partition> inRange = partitions.subMap(fromKey, true, toKey, true);
+        QueryStats.recordPartitions(inRange.size(), partitionCount() - inRange.size());
+        for (Map.Entry<Integer, Partition> entry : inRange.entrySet()) {
+            SmireColumnStore.Groups groups;
+            SmireColumnStore store = entry.getValue().pin(residency);
+            try {
+                groups = store.groupBy(groupBy, null, pillar, productType, null, null, scan);
+            } finally {
+                entry.getValue().unpin(residency);
+            }
+            if (groups == null) {
+                continue;
+            }
+            boolean first = entry.getKey() == fromKey;
+            boolean last = entry.getKey() == toKey;
+            for (int slot = 0; slot <= groups.unknownSlot(); slot++) {
+                if (groups.aggregates().isEmpty(slot)) {
+                    continue;
+                }
+                String key = groups.key(slot);
+                Integer global = slots.get(key);
+                if (global == null) {
+                    global = keys.size();
+                    slots.put(key, global);
+                    keys.add(key);
+                }
+                totals.merge(global, groups.aggregates(), slot);
+                if (first) {
+                    firsts.merge(global, groups.aggregates(), slot);
+                }
+                if (last) {
+                    lasts.merge(global, groups.aggregates(), slot);
+                }
+            }
+        }
+
+        // Heap berisi kandidat terbaik sejauh ini; akarnya kandidat terlemah sehingga mudah diganti.
+        // Skor dihitung sekali per grup dan dibandingkan langsung sebagai double; kandidat hanya dibuat
+        // untuk grup yang masuk heap. Skor sama diurutkan berdasarkan nilai grup agar hasil deterministik.
+        Comparator<Candidate> better = (a, b) -> {
+            int byScore = ascending ? Double.compare(b.score(), a.score()) : Double.compare(a.score(), b.score());
+            return byScore != 0 ? byScore : b.key().compareTo(a.key());
+        };
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(Math.min(limit, keys.size()) + 1, better);
+        for (int slot = 0; slot < keys.size(); slot++) {
+            double score;
+            switch (ranking) {
+                case TPV -> score = totals.sumTpv(slot);
+                case TPT -> score = totals.sumTpt(slot);
+                default -> {
+                    long base = firsts.sumTpv(slot);
+                    if (base <= 0) {
+                        continue;
+                    }
+                    score = (lasts.sumTpv(slot) - base) * 100.0 / base;
+                }
+            }
+            if (heap.size() < limit) {
+                heap.add(new Candidate(keys.get(slot), slot, score));
+                continue;
+            }
+            Candidate weakest = heap.peek();
+            int byScore = ascending ? Double.compare(weakest.score(), score) : Double.compare(score, weakest.score());
+            if (byScore > 0 || (byScore == 0 && keys.get(slot).compareTo(weakest.key()) < 0)) {
+                heap.poll();
+                heap.add(new Candidate(keys.get(slot), slot, score));
+            }
+        }
+
+        RankedGroup[] ranked = new RankedGroup[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            Candidate candidate = heap.poll();
+            int slot = candidate.slot();
+            ranked[i] = new RankedGroup(candidate.key(), totals.get(slot),
+                    ranking == Ranking.GROWTH ? firsts.get(slot) : null,
+                    ranking == Ranking.GROWTH ? lasts.get(slot) : null,
+                    candidate.score());
+        }
+        return List.of(ranked);
+    }
+
+    // Kandidat ranking di heap: nilai grup, slot global di akumulator, dan skor
+    private record Candidate(String key, int slot, double score) {
+    }
+
+    // Partisi yang relevan untuk filter bulan (partition pruning)
+    private List<Partition> prune(String month) {
+        List<Partition> pruned;
+        if (month == null) {
+            pruned = allPartitions();
+        } else {
+            int key = Months.keyOrNone(month);
+            if (key == Months.NO_KEY) {
+                // Label yang tidak bisa di-parse hanya mungkin ada di partisi unknown
+                pruned = unknown == null ? List.of() : List.of(unknown);
+            } else {
+                Partition partition = partitions.get(key);
+                pruned = partition == null ? List.of() : List.of(partition);
+            }
+        }
+        QueryStats.recordPartitions(pruned.size(), partitionCount() - pruned.size());
+        return pruned;
+    }
+
+    private List<Partition> allPartitions() {
+        List<Partition> all = new ArrayList<>(partitions.values());
+        if (unknown != null) {
+            all.add(unknown);
+        }
+        return all;
+    }
+
+    // Partisi beserta key bulannya (Months.NO_KEY untuk partisi unknown), untuk penulisan snapshot
+    Map<Integer, SmireColumnStore> loadPartitions() {
+        Map<Integer, SmireColumnStore> stores = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Partition> entry : partitions.entrySet()) {
+            stores.put(entry.getKey(), entry.getValue().store(residency));
+        }
+        if (unknown != null) {
+            stores.put(Months.NO_KEY, unknown.store(residency));
+        }
+        return stores;
+    }
+
+    // =========================
+    // Partisi & residensi
+    // =========================
+
+    /**
+     * Satu partisi bulan. Partisi dengan file snapshot dapat dilepas dari memori dan dimuat ulang secara lazy;
+     * partisi tanpa file (hasil parse JSON atau append) selalu tinggal di memori.
+     */
+    static final class Partition {
+        private final int rowCount;
+        private final Path file;
+        private final long sourceFingerprint;
+        private final boolean mapped;
+        // Dipegang agar file generasi snapshot partisi ini tidak dihapus selama partisi masih bisa dimuat
+        private final SmireSnapshot.Generation generation;
+        private volatile SmireColumnStore store;
+        // Jumlah query yang sedang memakai partisi; partisi yang di-pin tidak dilepas dari memori
+        private final AtomicInteger pins = new AtomicInteger();
+        // Stempel akses terakhir dari jam Residency; dasar pemilihan partisi yang dilepas
+        private volatile long lastAccess;
+
+        private Partition(SmireColumnStore store) {
+            this.rowCount = store.rowCount();
+            this.file = null;
+            this.sourceFingerprint = 0L;
+            this.mapped = false;
+            this.generation = null;
+            this.store = store;
+        }
+
+        private Partition(int rowCount, Path file, long sourceFingerprint, boolean mapped,
+                          SmireSnapshot.Generation generation) {
+            this.rowCount = rowCount;
+            this.file = file;
+            this.sourceFingerprint = sourceFingerprint;
+            this.mapped = mapped;
+            this.generation = generation;
+        }
+
+        static Partition resident(SmireColumnStore store) {
+            return new Partition(store);
+        }
+
+        static Partition lazy(int rowCount, Path file, long sourceFingerprint, boolean mapped,
+                              SmireSnapshot.Generation generation) {
+            return new Partition(rowCount, file, sourceFingerprint, mapped, generation);
+        }
+
+        boolean isLoaded() {
+            return store != null;
+        }
+
+        SmireColumnStore store(Residency residency) {
+            SmireColumnStore loaded = store;
+            boolean justLoaded = false;
+            if (loaded == null) {
+                synchronized (this) {
+                    loaded = store;
+                    if (loaded == null) {
+                        try {
+                            loaded = mapped ? SmireSnapshot.map(file, sourceFingerprint) : SmireSnapshot.read(file, sourceFingerprint);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Partisi " + file + " gagal dimuat: " + e.getMessage(), e);
+                        }
+                        store = loaded;
+                        residency.loaded(this);
+                        justLoaded = true;
+                    }
+                }
+            }
+            if (file != null) {
+                residency.touch(this);
+                // Sweep di luar lock partisi ini, karena sweep mengambil lock partisi lain
+                if (justLoaded) {
+                    residency.sweep();
+                }
+            }
+            return loaded;
+        }
+
+        /**
+         * Seperti {@link #store}, tetapi partisi tidak akan dilepas dari memori sampai {@link #unpin} dipanggil.
+         * Dipakai selama satu query agar partisi yang sedang dibaca tidak dimuat ulang oleh query lain.
+         */
+        SmireColumnStore pin(Residency residency) {
+            pins.incrementAndGet();
+            try {
+                return store(residency);
+            } catch (RuntimeException e) {
+                unpin(residency);
+                throw e;
+            }
+        }
+
+        void unpin(Residency residency) {
+            // Partisi yang tadinya tidak bisa dilepas karena di-pin dilepas sekarang jika residensi melebihi batas
+            if (pins.decrementAndGet() == 0 && file != null) {
+                residency.sweep();
+            }
+        }
+
+        // Melepas store dari memori jika tidak sedang di-pin. Query yang terlanjur memegang store tetap aman
+        // karena store immutable; store baru dibaca ulang dari file saat dibutuhkan lagi.
+        // Dikeluarkan dari residensi di bawah lock yang sama dengan pemuatan, agar muat ulang yang menyusul tidak ikut terhapus.
+        private synchronized boolean tryEvict(Residency residency) {
+            if (pins.get() != 0 || store == null) {
+                return false;
+            }
+            store = null;
+            residency.resident.remove(this);
+            return true;
+        }
+    }
+
+    /**
+     * Pelacak residensi partisi ber-file yang sedang dimuat; 0 berarti tanpa batas.
+     * Akses hanya menulis stempel dari jam atomik (tanpa lock), sehingga query pada partisi berbeda tidak saling
+     * menunggu. Saat jumlah partisi termuat melebihi batas, satu thread menjalankan sweep yang melepas partisi
+     * dengan akses paling lama yang tidak sedang di-pin.
+     */
+    static final class Residency {
+        private final int maxResident;
+        private final AtomicLong clock = new AtomicLong();
+        private final Set<Partition> resident = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean sweeping = new AtomicBoolean();
+        // Bertambah setiap kali sweep diminta; sweep diulang jika ada permintaan baru selama sweep berjalan
+        private final AtomicLong requests = new AtomicLong();
+
+        Residency(int maxResident) {
+            this.maxResident = maxResident;
+        }
+
+        void touch(Partition partition) {
+            partition.lastAccess = clock.incrementAndGet();
+        }
+
+        void loaded(Partition partition) {
+            if (maxResident > 0) {
+                resident.add(partition);
+            }
+        }
+
+        void sweep() {
+            // Thread yang gagal mengambil giliran mengandalkan thread yang sedang sweep untuk mengulang, sehingga
+            // partisi yang dimuat atau di-unpin di tengah sweep tidak tertinggal di atas batas
+            requests.incrementAndGet();
+            while (maxResident > 0 && resident.size() > maxResident && sweeping.compareAndSet(false, true)) {
+                long seen = requests.get();
+                try {
+                    List<Partition> candidates = new ArrayList<>(resident);
+                    candidates.sort(Comparator.comparingLong(partition -> partition.lastAccess));
+                    int excess = candidates.size() - maxResident;
+                    for (Partition candidate : candidates) {
+                        if (excess == 0) {
+                            break;
+                        }
+                        if (candidate.tryEvict(this)) {
+                            excess--;
+                        }
+                    }
+                } finally {
+                    sweeping.set(false);
+                }
+                // Sisa kelebihan tanpa permintaan baru berarti semuanya sedang di-pin; unpin akan memicu sweep berikutnya
+                if (requests.get() == seen) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // =========================
+    // Builder
+    // =========================
+
+    /**
+     * Mengarahkan setiap baris ke builder partisi bulannya.
+     */
+    public static final class Builder implements SmireColumnStore.RowSink {
+
+        private final TreeMap<Integer, SmireColumnStore.Builder> builders = new TreeMap<>();
+        private SmireColumnStore.Builder unknownBuilder;
+        // Cache label -> key bulan; jumlah label sedikit sehingga parse cukup sekali per label
+        private final Map<String, Integer> monthKeys = new HashMap<>();
+
+        private Builder() {
+        }
+
+        @Override
+        public void addRow(String month, String pillar, String productType, String brandId,
+                           String merchantName, long tpvMinorUnits, long tpt) {
+            builderFor(month).addRow(month, pillar, productType, brandId, merchantName, tpvMinorUnits, tpt);
+        }
+
+        private SmireColumnStore.Builder builderFor(String month) {
+            int key = month == null ? Months.NO_KEY : monthKeys.computeIfAbsent(month, Months::keyOrNone);
+            if (key == Months.NO_KEY) {
+                if (unknownBuilder == null) {
+                    unknownBuilder = SmireColumnStore.builder();
+                }
+                return unknownBuilder;
+            }
+            return builders.computeIfAbsent(key, k -> SmireColumnStore.builder());
+        }
+
+        public SmirePartitionedStore build() {
+            TreeMap<Integer, Partition> partitions = new TreeMap<>();
+            builders.forEach((key, builder) -> partitions.put(key, Partition.resident(builder.build())));
+            Partition unknown = unknownBuilder == null ? null : Partition.resident(unknownBuilder.build());
+            return new SmirePartitionedStore(partitions, unknown, new Residency(0));
+        }
+    }
+
+    // =========================
+    // Appender
+    // =========================
+
+    /**
+     * Menambah baris baru ke salinan dataset: partisi bulan baru dibangun dari nol, partisi bulan yang
+     * sudah ada diperbarui secara inkremental lewat {@link SmireColumnStore.Appender}; partisi lain dipakai bersama.
+     */
+    public static final class Appender implements SmireColumnStore.RowSink {
+
+        private final SmirePartitionedStore base;
+        private final Map<Integer, SmireColumnStore.Appender> existing = new HashMap<>();
+        private final Builder added = new Builder();
+        private SmireColumnStore.Appender unknownAppender;
+        private final Set<String> affectedMonths = new TreeSet<>();
+        private int size;
+
+        private Appender(SmirePartitionedStore base) {
+            this.base = base;
+        }
+
+        @Override
+        public void addRow(String month, String pillar, String productType, String brandId,
+                           String merchantName, long tpvMinorUnits, long tpt) {
+            int key = month == null ? Months.NO_KEY : added.monthKeys.computeIfAbsent(month, Months::keyOrNone);
+            SmireColumnStore.RowSink sink;
+            if (key == Months.NO_KEY) {
+                if (base.unknown == null) {
+                    sink = added;
+                } else {
+                    if (unknownAppender == null) {
+                        unknownAppender = base.unknown.store(base.residency).appender();
+                    }
+                    sink = unknownAppender;
+                }
+            } else if (base.partitions.containsKey(key)) {
+                sink = existing.computeIfAbsent(key, k -> base.partitions.get(k).store(base.residency).appender());
+            } else {
+                sink = added;
+            }
+            sink.addRow(month, pillar, productType, brandId, merchantName, tpvMinorUnits, tpt);
+            // Label kanonik (Oct-24), sama dengan bulan di key cache tool
+            if (key != Months.NO_KEY) {
+                affectedMonths.add(Months.format(Months.fromKey(key)));
+            } else if (month != null) {
+                affectedMonths.add(month);
+            }
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Bulan yang mendapat baris baru; dipakai untuk invalidasi cache yang bergantung pada bulan tersebut
+        public Set<String> affectedMonths() {
+            return affectedMonths;
+        }
+
+        public SmirePartitionedStore build() {
+            if (size == 0) {
+                return base;
+            }
+            TreeMap<Integer, Partition> partitions = new TreeMap<>(base.partitions);
+            existing.forEach((key, appender) -> partitions.put(key, Partition.resident(appender.build())));
+            added.builders.forEach((key, builder) -> partitions.put(key, Partition.resident(builder.build())));
+
+            Partition unknown = base.unknown;
+            if (unknownAppender != null) {
+                unknown = Partition.resident(unknownAppender.build());
+            } else if (added.unknownBuilder != null) {
+                unknown = Partition.resident(added.unknownBuilder.build());
+            }
+            return new SmirePartitionedStore(partitions, unknown, base.residency, base.scan);
+        }
+    }
+}
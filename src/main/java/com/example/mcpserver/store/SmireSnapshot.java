@@ -0,0 +1,688 @@
+package com.example.mcpserver.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Format snapshot biner untuk {@link SmireColumnStore}: kamus + kolom primitif, dengan versi skema dan checksum.
+ * Snapshot dibaca lewat memory-mapping sehingga startup tidak perlu mem-parse JSON lagi;
+ * bitmap index dan rollup cube dibangun ulang dari kolom saat load. Dengan {@link #map} kolom tidak disalin
+ * ke heap sama sekali: store membaca langsung dari page cache, yang juga bisa dibagi antar proses di satu host.
+ *
+ * <pre>
+ * magic "SMIRESNP" | int versi | long sidik jari sumber | int jumlah baris | long panjang blok kamus
+ * blok kamus: per kamus (6) int jumlah entri, lalu per entri int panjang byte + UTF-8
+ * padding ke kelipatan 8
+ * 6 kolom int (jumlah baris x 4 byte, padding ke kelipatan 8), kolom tpv dan tpt (jumlah baris x 8 byte)
+ * long CRC32 atas seluruh byte sebelumnya
+ * </pre>
+ *
+ * Dataset yang dipartisi per bulan ({@link SmirePartitionedStore}) disimpan sebagai satu snapshot per partisi
+ * ({@code <nama>.g<generasi>.p<key bulan>}, atau {@code <nama>.g<generasi>.punknown}) ditambah manifest di path utama.
+ * Setiap penulisan memakai generasi baru, sehingga file partisi yang masih dibaca lazy oleh store lama tidak pernah
+ * ditimpa. Proses yang membuka sebuah generasi memegang shared lock pada {@code <nama>.g<generasi>.lease};
+ * file generasi lama baru dihapus oleh proses yang berhasil mengambil exclusive lock pada lease tersebut,
+ * yaitu setelah tidak ada lagi proses di host ini yang memakainya.
+ *
+ * <pre>
+ * magic "SMIREMAN" | int versi | long sidik jari sumber | long generasi | int jumlah partisi
+ * per partisi: int key bulan (Integer.MIN_VALUE untuk unknown) | int jumlah baris
+ * long CRC32 atas seluruh byte sebelumnya
+ * </pre>
+ *
+ * Sidik jari sumber ({@link #fingerprint}) diambil dari isi file data, bukan lastModified-nya: file lain dengan
+ * waktu modifikasi yang sama (mis. hasil ekstrak dari jar, arsip, atau image container) tidak dianggap cocok.
+ */
+public final class SmireSnapshot {
+
+    // Versi 2: label bulan disimpan kanonik (Oct-24); versi 3: file partisi per generasi;
+    // versi 4: sidik jari isi sumber menggantikan lastModified. Snapshot versi lama dibangun ulang dari JSON
+    public static final int SCHEMA_VERSION = 4;
+
+    private static final byte[] MAGIC = "SMIRESNP".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MANIFEST_MAGIC = "SMIREMAN".getBytes(StandardCharsets.US_ASCII);
+    private static final int MANIFEST_HEADER_BYTES = MANIFEST_MAGIC.length + Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int HEADER_BYTES = MAGIC.length + Integer.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int DICTIONARY_COUNT = 6;
+    private static final int BUFFER_BYTES = 1 << 20;
+    // Ukuran region per mapping saat menghitung checksum (di bawah batas 2 GB MappedByteBuffer)
+    private static final long MAP_CHUNK_BYTES = 1L << 28;
+    // Penanda manifest yang tidak ada atau tidak valid
+    private static final long NO_GENERATION = -1L;
+
+    // Generasi yang sedang dipakai partisi di proses ini beserta lease-nya. openDataset berulang atas generasi
+    // yang sama memakai objek dan lock yang sama (FileLock tidak boleh tumpang tindih dalam satu JVM),
+    // sehingga lease baru dilepas setelah semua pemakainya hilang.
+    private static final Map<Path, Lease> LIVE_GENERATIONS = new HashMap<>();
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private SmireSnapshot() {
+    }
+
+    /**
+     * Sidik jari isi sumber data: 8 byte pertama SHA-256 atas seluruh byte {@code content}.
+     * Snapshot hanya dipakai jika sidik jari yang tercatat sama dengan sidik jari sumber saat ini.
+     */
+    public static long fingerprint(InputStream content) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+        byte[] buffer = new byte[BUFFER_BYTES];
+        for (int n; (n = content.read(buffer)) > 0; ) {
+            digest.update(buffer, 0, n);
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    /**
+     * Menulis snapshot secara atomik (file sementara lalu rename).
+     */
+    public static void write(SmireColumnStore store, Path path, long sourceFingerprint) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ChecksumWriter out = new ChecksumWriter(channel);
+                byte[] dictionaryBlock = encodeDictionaries(store.dictionaries());
+
+                out.put(MAGIC);
+                out.putInt(SCHEMA_VERSION);
+                out.putLong(sourceFingerprint);
+                out.putInt(store.rowCount());
+                out.putLong(dictionaryBlock.length);
+                out.put(dictionaryBlock);
+                out.pad();
+
+                for (IntColumn column : store.intColumns()) {
+                    for (int row = 0; row < column.size(); row++) {
+                        out.putInt(column.get(row));
+                    }
+                    out.pad();
+                }
+                for (LongColumn column : new LongColumn[]{store.tpvColumn(), store.tptColumn()}) {
+                    for (int row = 0; row < column.size(); row++) {
+                        out.putLong(column.get(row));
+                    }
+                }
+                out.finish();
+                channel.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Membaca snapshot yang dibuat dari sumber dengan {@code sourceFingerprint} yang sama; kolom disalin ke heap.
+     *
+     * @throws IOException jika file tidak valid, versi skema berbeda, checksum tidak cocok,
+     *                     atau snapshot sudah basi dibanding sumbernya
+     */
+    public static SmireColumnStore read(Path path, long sourceFingerprint) throws IOException {
+        return open(path, sourceFingerprint, false);
+    }
+
+    /**
+     * Seperti {@link #read}, tetapi kolom tetap off-heap sebagai view atas region file yang di-mmap.
+     * Mapping tetap valid setelah channel ditutup, selama store masih direferensikan.
+     */
+    public static SmireColumnStore map(Path path, long sourceFingerprint) throws IOException {
+        return open(path, sourceFingerprint, true);
+    }
+
+    private static SmireColumnStore open(Path path, long sourceFingerprint, boolean offHeap) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES + Long.BYTES) {
+                throw new IOException("Snapshot terlalu pendek: " + fileSize + " byte");
+            }
+
+            ByteBuffer header = map(channel, 0, HEADER_BYTES);
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Bukan file snapshot SMIRE");
+            }
+            int version = header.getInt();
+            if (version != SCHEMA_VERSION) {
+                throw new IOException("Versi skema snapshot " + version + " tidak didukung (diharapkan " + SCHEMA_VERSION + ")");
+            }
+            long recordedFingerprint = header.getLong();
+            if (recordedFingerprint != sourceFingerprint) {
+                throw new IOException("Snapshot basi: sumber data berubah sejak snapshot dibuat");
+            }
+            int rowCount = header.getInt();
+            long dictionaryBytes = header.getLong();
+
+            long columnsOffset = align(HEADER_BYTES + dictionaryBytes);
+            long intColumnBytes = align((long) rowCount * Integer.BYTES);
+            long longColumnBytes = (long) rowCount * Long.BYTES;
+            long checksumOffset = columnsOffset + DICTIONARY_COUNT * intColumnBytes + 2 * longColumnBytes;
+            if (checksumOffset + Long.BYTES != fileSize) {
+                throw new IOException("Ukuran snapshot tidak konsisten dengan header");
+            }
+            if (longColumnBytes > Integer.MAX_VALUE) {
+                throw new IOException("Kolom snapshot melebihi batas satu region mmap (2 GB)");
+            }
+
+            long expectedChecksum = map(channel, checksumOffset, Long.BYTES).getLong();
+            if (checksum(channel, checksumOffset) != expectedChecksum) {
+                throw new IOException("Checksum snapshot tidak cocok");
+            }
+
+            StringDictionary[] dictionaries = decodeDictionaries(map(channel, HEADER_BYTES, dictionaryBytes));
+            IntColumn[] intColumns = new IntColumn[DICTIONARY_COUNT];
+            long offset = columnsOffset;
+            for (int c = 0; c < DICTIONARY_COUNT; c++) {
+                intColumns[c] = intColumn(map(channel, offset, (long) rowCount * Integer.BYTES).asIntBuffer(), offHeap);
+                offset += intColumnBytes;
+            }
+            LongColumn tpvCol = longColumn(map(channel, offset, longColumnBytes).asLongBuffer(), offHeap);
+            offset += longColumnBytes;
+            LongColumn tptCol = longColumn(map(channel, offset, longColumnBytes).asLongBuffer(), offHeap);
+
+            return new SmireColumnStore(dictionaries, intColumns, tpvCol, tptCol);
+        }
+    }
+
+    // =========================
+    // Dataset berpartisi
+    // =========================
+
+    /**
+     * Menulis setiap partisi sebagai snapshot tersendiri (segmen baru yang sudah dipadatkan) dengan generasi baru,
+     * lalu manifest secara atomik. File generasi lama tidak ditimpa; yang lease-nya tidak dipegang proses mana pun
+     * dihapus setelah manifest berganti, sisanya setelah store pemakainya tidak lagi direferensikan.
+     */
+    public static void writeDataset(SmirePartitionedStore dataset, Path path, long sourceFingerprint) throws IOException {
+        Map<Integer, SmireColumnStore> partitions = dataset.loadPartitions();
+        long generation = Math.max(System.currentTimeMillis(), manifestGeneration(path) + 1);
+        ByteBuffer manifest = ByteBuffer.allocate(MANIFEST_HEADER_BYTES + partitions.size() * 2 * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        manifest.put(MANIFEST_MAGIC);
+        manifest.putInt(SCHEMA_VERSION);
+        manifest.putLong(sourceFingerprint);
+        manifest.putLong(generation);
+        manifest.putInt(partitions.size());
+        for (Map.Entry<Integer, SmireColumnStore> entry : partitions.entrySet()) {
+            write(entry.getValue(), partitionFile(path, generation, entry.getKey()), sourceFingerprint);
+            manifest.putInt(entry.getKey());
+            manifest.putInt(entry.getValue().rowCount());
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(manifest.array(), 0, manifest.position());
+        ByteBuffer checksum = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(crc.getValue());
+
+        Path parent = path.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                manifest.flip();
+                checksum.flip();
+                while (manifest.hasRemaining() || checksum.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{manifest, checksum});
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        deleteUnusedGenerations(path, generation);
+    }
+
+    /**
+     * Membuka dataset dari manifest tanpa memuat partisi; setiap partisi dibaca (atau di-mmap jika {@code offHeap})
+     * saat pertama kali dibutuhkan, dan dapat dilepas lagi bila jumlah partisi termuat melebihi {@code maxResident}
+     * (0 = tanpa batas).
+     *
+     * @throws IOException jika manifest tidak valid, basi, atau ada file partisi yang hilang
+     */
+    public static SmirePartitionedStore openDataset(Path path, long sourceFingerprint, boolean offHeap, int maxResident)
+            throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length < MANIFEST_HEADER_BYTES + Long.BYTES) {
+            throw new IOException("Manifest terlalu pendek: " + bytes.length + " byte");
+        }
+        ByteBuffer manifest = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magic = new byte[MANIFEST_MAGIC.length];
+        manifest.get(magic);
+        if (!Arrays.equals(magic, MANIFEST_MAGIC)) {
+            throw new IOException("Bukan manifest dataset SMIRE");
+        }
+        int version = manifest.getInt();
+        if (version != SCHEMA_VERSION) {
+            throw new IOException("Versi skema snapshot " + version + " tidak didukung (diharapkan " + SCHEMA_VERSION + ")");
+        }
+        if (manifest.getLong() != sourceFingerprint) {
+            throw new IOException("Snapshot basi: sumber data berubah sejak snapshot dibuat");
+        }
+        long generationId = manifest.getLong();
+        int count = manifest.getInt();
+        if (count < 0 || bytes.length != MANIFEST_HEADER_BYTES + (long) count * 2 * Integer.BYTES + Long.BYTES) {
+            throw new IOException("Ukuran manifest tidak konsisten dengan header");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Long.BYTES);
+        if (ByteBuffer.wrap(bytes, bytes.length - Long.BYTES, Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).getLong() != crc.getValue()) {
+            throw new IOException("Checksum manifest tidak cocok");
+        }
+
+        TreeMap<Integer, SmirePartitionedStore.Partition> partitions = new TreeMap<>();
+        SmirePartitionedStore.Partition unknown = null;
+        // Lease generasi diambil sebelum file diperiksa, agar writeDataset yang berjalan bersamaan
+        // (di proses ini atau proses lain) tidak menghapusnya
+        synchronized (LIVE_GENERATIONS) {
+            Generation generation = liveGeneration(path, generationId);
+            for (int i = 0; i < count; i++) {
+                int monthKey = manifest.getInt();
+                int rowCount = manifest.getInt();
+                Path file = partitionFile(path, generationId, monthKey);
+                if (!Files.isRegularFile(file)) {
+                    throw new IOException("File partisi " + file + " tidak ditemukan");
+                }
+                SmirePartitionedStore.Partition partition = SmirePartitionedStore.Partition.lazy(rowCount, file,
+                        sourceFingerprint, offHeap, generation);
+                if (monthKey == Months.NO_KEY) {
+                    unknown = partition;
+                } else {
+                    partitions.put(monthKey, partition);
+                }
+            }
+        }
+        return new SmirePartitionedStore(partitions, unknown, new SmirePartitionedStore.Residency(maxResident));
+    }
+
+    private static Path partitionFile(Path manifest, long generation, int monthKey) {
+        String suffix = monthKey == Months.NO_KEY ? "punknown" : "p" + monthKey;
+        return manifest.toAbsolutePath().resolveSibling(generationPrefix(manifest, generation) + suffix);
+    }
+
+    // <nama>.g<generasi>. ; nama semua file partisi satu generasi diawali prefix ini
+    private static String generationPrefix(Path manifest, long generation) {
+        return manifest.getFileName() + ".g" + generation + ".";
+    }
+
+    // Key LIVE_GENERATIONS untuk satu generasi
+    private static Path generationKey(Path manifest, long generation) {
+        return manifest.toAbsolutePath().resolveSibling(generationPrefix(manifest, generation));
+    }
+
+    private static Path leaseFile(Path manifest, long generation) {
+        return manifest.toAbsolutePath().resolveSibling(generationPrefix(manifest, generation) + "lease");
+    }
+
+    // =========================
+    // Generasi file partisi
+    // =========================
+
+    /**
+     * Satu generasi file partisi. Setiap partisi lazy memegang generasinya; setelah objek ini tidak lagi
+     * direferensikan (tidak ada store yang bisa memuat partisinya) lease-nya dilepas, dan jika manifest menunjuk
+     * generasi lain serta tidak ada proses lain yang memegang lease, file generasi ini dihapus.
+     */
+    static final class Generation {
+        private final long id;
+
+        private Generation(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public String toString() {
+            return "generasi " + id;
+        }
+    }
+
+    // Generasi yang dipakai di proses ini dan shared lock pada file lease-nya
+    private record Lease(WeakReference<Generation> generation, FileChannel channel) {
+    }
+
+    // Dipanggil dengan lock LIVE_GENERATIONS
+    private static Generation liveGeneration(Path manifest, long id) throws IOException {
+        Path key = generationKey(manifest, id);
+        Lease lease = LIVE_GENERATIONS.get(key);
+        Generation generation = lease == null ? null : lease.generation().get();
+        if (generation == null) {
+            generation = new Generation(id);
+            // Lease dari objek yang sudah di-GC tetapi belum dibersihkan Cleaner dipakai ulang
+            FileChannel channel = lease == null ? acquireLease(manifest, id) : lease.channel();
+            LIVE_GENERATIONS.put(key, new Lease(new WeakReference<>(generation), channel));
+            CLEANER.register(generation, new GenerationCleanup(manifest.toAbsolutePath(), id));
+        }
+        return generation;
+    }
+
+    // Shared lock: banyak proses boleh memakai generasi yang sama, tetapi tidak ada yang bisa menghapusnya
+    private static FileChannel acquireLease(Path manifest, long generation) throws IOException {
+        FileChannel channel = FileChannel.open(leaseFile(manifest, generation),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            channel.lock(0, Long.MAX_VALUE, true);
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Tidak boleh mereferensikan Generation, agar objek tersebut tetap bisa di-GC
+    private record GenerationCleanup(Path manifest, long id) implements Runnable {
+        @Override
+        public void run() {
+            synchronized (LIVE_GENERATIONS) {
+                Path key = generationKey(manifest, id);
+                Lease lease = LIVE_GENERATIONS.get(key);
+                if (lease == null || lease.generation().get() != null) {
+                    // Sudah dibersihkan, atau generasi yang sama sudah dibuka ulang
+                    return;
+                }
+                LIVE_GENERATIONS.remove(key);
+                try {
+                    lease.channel().close();
+                    if (manifestGeneration(manifest) != id) {
+                        deleteIfUnleased(manifest, id);
+                    }
+                } catch (IOException e) {
+                    // Penghapusan best-effort dari thread Cleaner; dicoba lagi oleh deleteUnusedGenerations
+                    // saat snapshot berikutnya ditulis
+                }
+            }
+        }
+    }
+
+    // Generasi yang ditunjuk manifest, atau NO_GENERATION jika manifest tidak ada atau bukan versi ini
+    private static long manifestGeneration(Path manifest) {
+        try (FileChannel channel = FileChannel.open(manifest, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(MANIFEST_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // baca sampai header penuh
+            }
+            if (header.hasRemaining()) {
+                return NO_GENERATION;
+            }
+            header.flip();
+            byte[] magic = new byte[MANIFEST_MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MANIFEST_MAGIC) || header.getInt() != SCHEMA_VERSION) {
+                return NO_GENERATION;
+            }
+            header.getLong();
+            return header.getLong();
+        } catch (IOException e) {
+            return NO_GENERATION;
+        }
+    }
+
+    // Menghapus file generasi sebelum {@code current} yang lease-nya tidak dipegang proses mana pun,
+    // termasuk file partisi format lama tanpa generasi ({@code <nama>.p<key>})
+    private static void deleteUnusedGenerations(Path manifest, long current) throws IOException {
+        String name = manifest.getFileName().toString();
+        Path parent = manifest.toAbsolutePath().getParent();
+        synchronized (LIVE_GENERATIONS) {
+            TreeSet<Long> generations = new TreeSet<>();
+            try (Stream<Path> files = Files.list(parent)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String fileName = file.getFileName().toString();
+                    if (fileName.startsWith(name + ".") && isPartitionSuffix(fileName.substring(name.length() + 1))) {
+                        Files.deleteIfExists(file);
+                        continue;
+                    }
+                    long generation = generationOf(name, fileName);
+                    // Generasi yang lebih baru bisa jadi sedang ditulis proses lain
+                    if (generation != NO_GENERATION && generation < current) {
+                        generations.add(generation);
+                    }
+                }
+            }
+            for (long generation : generations) {
+                // Generasi yang masih tercatat di proses ini dihapus oleh GenerationCleanup
+                if (!LIVE_GENERATIONS.containsKey(generationKey(manifest, generation))) {
+                    deleteIfUnleased(manifest, generation);
+                }
+            }
+        }
+    }
+
+    // Menghapus file satu generasi jika exclusive lock pada lease-nya bisa diambil; dipanggil dengan lock LIVE_GENERATIONS
+    private static void deleteIfUnleased(Path manifest, long generation) throws IOException {
+        String name = manifest.getFileName().toString();
+        Path lease = leaseFile(manifest, generation);
+        try (FileChannel channel = FileChannel.open(lease,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                // Lease masih dipegang channel lain di JVM ini
+                return;
+            }
+            if (lock == null) {
+                // Masih dipakai proses lain
+                return;
+            }
+            try (Stream<Path> files = Files.list(lease.getParent())) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String fileName = file.getFileName().toString();
+                    if (!file.equals(lease) && generationOf(name, fileName) == generation) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+            // Dihapus selagi lock masih dipegang; proses yang menunggu lock akan mendapati file partisi sudah hilang
+            Files.deleteIfExists(lease);
+        }
+    }
+
+    // Generasi dari nama file <nama>.g<generasi>.p<key> atau <nama>.g<generasi>.lease, atau NO_GENERATION jika bukan
+    private static long generationOf(String manifestName, String fileName) {
+        String prefix = manifestName + ".g";
+        int end = fileName.indexOf('.', prefix.length());
+        if (!fileName.startsWith(prefix) || end < 0) {
+            return NO_GENERATION;
+        }
+        String suffix = fileName.substring(end + 1);
+        if (!suffix.equals("lease") && !isPartitionSuffix(suffix)) {
+            return NO_GENERATION;
+        }
+        try {
+            return Long.parseLong(fileName.substring(prefix.length(), end));
+        } catch (NumberFormatException e) {
+            return NO_GENERATION;
+        }
+    }
+
+    // Suffix nama file partisi seperti yang ditulis partitionFile: punknown atau p<key bulan>
+    private static boolean isPartitionSuffix(String suffix) {
+        if (suffix.equals("punknown")) {
+            return true;
+        }
+        if (!suffix.startsWith("p")) {
+            return false;
+        }
+        try {
+            return ("p" + Integer.parseInt(suffix.substring(1))).equals(suffix);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // =========================
+    // Encoding helpers
+    // =========================
+
+    private static MappedByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static IntColumn intColumn(IntBuffer buffer, boolean offHeap) {
+        if (offHeap) {
+            return IntColumn.mapped(buffer);
+        }
+        int[] values = new int[buffer.remaining()];
+        buffer.get(values);
+        return IntColumn.heap(values);
+    }
+
+    private static LongColumn longColumn(LongBuffer buffer, boolean offHeap) {
+        if (offHeap) {
+            return LongColumn.mapped(buffer);
+        }
+        long[] values = new long[buffer.remaining()];
+        buffer.get(values);
+        return LongColumn.heap(values);
+    }
+
+    private static long checksum(FileChannel channel, long length) throws IOException {
+        CRC32 crc = new CRC32();
+        for (long offset = 0; offset < length; offset += MAP_CHUNK_BYTES) {
+            crc.update(map(channel, offset, Math.min(MAP_CHUNK_BYTES, length - offset)));
+        }
+        return crc.getValue();
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static byte[] encodeDictionaries(StringDictionary[] dictionaries) {
+        int total = 0;
+        byte[][][] encoded = new byte[dictionaries.length][][];
+        for (int d = 0; d < dictionaries.length; d++) {
+            StringDictionary dictionary = dictionaries[d];
+            encoded[d] = new byte[dictionary.size()][];
+            total += Integer.BYTES;
+            for (int id = 0; id < dictionary.size(); id++) {
+                encoded[d][id] = dictionary.valueOf(id).getBytes(StandardCharsets.UTF_8);
+                total += Integer.BYTES + encoded[d][id].length;
+            }
+        }
+        ByteBuffer block = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte[][] values : encoded) {
+            block.putInt(values.length);
+            for (byte[] value : values) {
+                block.putInt(value.length);
+                block.put(value);
+            }
+        }
+        return block.array();
+    }
+
+    private static StringDictionary[] decodeDictionaries(ByteBuffer block) {
+        StringDictionary[] dictionaries = new StringDictionary[DICTIONARY_COUNT];
+        for (int d = 0; d < DICTIONARY_COUNT; d++) {
+            StringDictionary dictionary = new StringDictionary();
+            int size = block.getInt();
+            for (int id = 0; id < size; id++) {
+                byte[] value = new byte[block.getInt()];
+                block.get(value);
+                dictionary.encode(new String(value, StandardCharsets.UTF_8));
+            }
+            dictionaries[d] = dictionary;
+        }
+        return dictionaries;
+    }
+
+    /**
+     * Penulis berbuffer yang sekaligus menghitung CRC32 dan posisi byte.
+     */
+    private static final class ChecksumWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 crc = new CRC32();
+        private long position;
+
+        ChecksumWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int n = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, n);
+                offset += n;
+                position += n;
+            }
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+            position += Integer.BYTES;
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+            position += Long.BYTES;
+        }
+
+        void pad() throws IOException {
+            while ((position & 7) != 0) {
+                ensure(1);
+                buffer.put((byte) 0);
+                position++;
+            }
+        }
+
+        // Menulis checksum di akhir file (checksum tidak ikut dihitung)
+        void finish() throws IOException {
+            flush();
+            buffer.putLong(crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
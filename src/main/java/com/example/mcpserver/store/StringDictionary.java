@@ -0,0 +1,64 @@
+package com.example.mcpserver.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kamus (dictionary encoding) untuk kolom bertipe String.
+ * Setiap nilai unik dipetakan ke id int berurutan mulai dari 0; nilai null dipetakan ke {@link #MISSING}.
+ */
+public final class StringDictionary {
+
+    public static final int MISSING = -1;
+
+    private final Map<String, Integer> ids;
+    private final List<String> values;
+
+    public StringDictionary() {
+        this.ids = new HashMap<>();
+        this.values = new ArrayList<>();
+    }
+
+    private StringDictionary(StringDictionary other) {
+        this.ids = new HashMap<>(other.ids);
+        this.values = new ArrayList<>(other.values);
+    }
+
+    // Salinan yang dapat ditambah tanpa mengubah kamus asal (copy-on-write untuk append)
+    public StringDictionary copy() {
+        return new StringDictionary(this);
+    }
+
+    // Mengembalikan id untuk nilai, menambahkan entri baru jika belum ada
+    public int encode(String value) {
+        if (value == null) {
+            return MISSING;
+        }
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    // Mengembalikan id untuk nilai tanpa menambah entri; MISSING jika tidak dikenal
+    public int idOf(String value) {
+        if (value == null) {
+            return MISSING;
+        }
+        Integer id = ids.get(value);
+        return id != null ? id : MISSING;
+    }
+
+    public String valueOf(int id) {
+        return id == MISSING ? null : values.get(id);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.mcpserver.store;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernel agregasi SIMD (Vector API): setiap word bitset dibaca per {@code LANES} baris sekaligus. Baris yang tidak
+ * dipilih dinetralkan dengan operasi bitwise per lane (bukan masked load) agar tetap berjalan sebagai instruksi vektor
+ * di CPU tanpa register mask.
+ * Akumulator SUM/MIN/MAX disimpan per lane dan baru direduksi di akhir setiap run word tidak kosong; run yang jarang
+ * diserahkan ke kernel skalar. Hanya dimuat lewat
+ * {@link AggregationKernel#get()} saat modul {@code jdk.incubator.vector} tersedia.
+ */
+final class VectorAggregationKernel implements AggregationKernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final long LANE_BITS = (1L << LANES) - 1;
+    // Tabel mask lane: baris ke-bits berisi LANES long bernilai -1 (lane dipilih) atau 0, untuk setiap pola bit
+    private static final long[] LANE_MASKS = laneMasks();
+    // Run word yang lebih jarang dari ini (bit per word) lebih cepat diagregasi per bit oleh kernel skalar
+    private static final int SPARSE_BITS_PER_WORD = 8;
+
+    VectorAggregationKernel() {
+        // Tanpa register vektor lebih dari satu lane tidak ada keuntungan dibanding kernel skalar
+        if (LANES < 2 || 64 % LANES != 0) {
+            throw new UnsupportedOperationException("Vector API tidak mendukung lane long ganda di CPU ini");
+        }
+    }
+
+    @Override
+    public void accumulate(long[] words, int fromWord, int toWord, int base, LongColumn tpvColumn, LongColumn tptColumn,
+                           GroupAggregator accumulator, int group) {
+        if (!(tpvColumn instanceof LongColumn.Heap tpvHeap) || !(tptColumn instanceof LongColumn.Heap tptHeap)) {
+            ScalarAggregationKernel.INSTANCE.accumulate(words, fromWord, toWord, base, tpvColumn, tptColumn, accumulator, group);
+            return;
+        }
+        long[] tpv = tpvHeap.values();
+        long[] tpt = tptHeap.values();
+        // Word yang melewati ujung kolom tidak aman untuk load vektor penuh; diproses skalar setelah loop
+        int vectorTo = (int) Math.max(fromWord, Math.min(toWord, (long) (tpv.length - base) >> 6));
+
+        // Word kosong dilewati di sini; run word tidak kosong diagregasi oleh loop vektor tanpa percabangan.
+        // Akumulator vektor yang melewati cabang atau pemanggilan method tidak bisa disimpan di register oleh JIT.
+        int w = fromWord;
+        while (w < vectorTo) {
+            if (words[w] == 0) {
+                w++;
+                continue;
+            }
+            int end = w;
+            long bits = 0;
+            while (end < vectorTo && words[end] != 0) {
+                bits += Long.bitCount(words[end]);
+                end++;
+            }
+            if (bits < (long) (end - w) * SPARSE_BITS_PER_WORD) {
+                ScalarAggregationKernel.INSTANCE.accumulate(words, w, end, base, tpvColumn, tptColumn, accumulator, group);
+            } else {
+                accumulateRun(words, w, end, base, tpv, tpt, accumulator, group);
+            }
+            w = end;
+        }
+        if (vectorTo < toWord) {
+            ScalarAggregationKernel.INSTANCE.accumulate(words, vectorTo, toWord, base, tpvColumn, tptColumn, accumulator, group);
+        }
+    }
+
+    /**
+     * Agregasi word [fromWord, toWord) yang semuanya tidak kosong. Baris yang tidak dipilih dinetralkan dengan
+     * mask 0 / -1 dari tabel: 0 untuk SUM, MAX_VALUE / MIN_VALUE untuk MIN / MAX.
+     */
+    private static void accumulateRun(long[] words, int fromWord, int toWord, int base, long[] tpv, long[] tpt,
+                                      GroupAggregator accumulator, int group) {
+        LongVector sumTpv = LongVector.zero(SPECIES);
+        LongVector sumTpt = LongVector.zero(SPECIES);
+        LongVector minTpv = LongVector.broadcast(SPECIES, Long.MAX_VALUE);
+        LongVector maxTpv = LongVector.broadcast(SPECIES, Long.MIN_VALUE);
+        long count = 0;
+
+        for (int w = fromWord; w < toWord; w++) {
+            long word = words[w];
+            int wordBase = base + (w << 6);
+            count += Long.bitCount(word);
+            for (int lane = 0; lane < 64; lane += LANES) {
+                int row = wordBase + lane;
+                LongVector selected = LongVector.fromArray(SPECIES, LANE_MASKS, (int) ((word >>> lane) & LANE_BITS) * LANES);
+                LongVector rejected = selected.not();
+                LongVector tpvValues = LongVector.fromArray(SPECIES, tpv, row).and(selected);
+                sumTpv = sumTpv.add(tpvValues);
+                sumTpt = sumTpt.add(LongVector.fromArray(SPECIES, tpt, row).and(selected));
+                minTpv = minTpv.min(tpvValues.or(rejected.and(Long.MAX_VALUE)));
+                maxTpv = maxTpv.max(tpvValues.or(rejected.and(Long.MIN_VALUE)));
+            }
+        }
+
+        accumulator.add(group, sumTpv.reduceLanes(VectorOperators.ADD), sumTpt.reduceLanes(VectorOperators.ADD), count,
+                minTpv.reduceLanes(VectorOperators.MIN), maxTpv.reduceLanes(VectorOperators.MAX));
+    }
+
+    private static long[] laneMasks() {
+        long[] masks = new long[(1 << LANES) * LANES];
+        for (int bits = 0; bits < 1 << LANES; bits++) {
+            for (int lane = 0; lane < LANES; lane++) {
+                masks[bits * LANES + lane] = (bits >>> lane & 1) == 0 ? 0L : -1L;
+            }
+        }
+        return masks;
+    }
+
+    @Override
+    public String description() {
+        return "SIMD " + SPECIES.vectorBitSize() + "-bit (" + LANES + " lane long)";
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.mcpserver.service;
+
+import com.example.mcpserver.store.Aggregate;
+import com.example.mcpserver.store.SmirePartitionedStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmireDataServiceTest {
+
+    private static final String BASE_ROWS = """
+            [
+              {"month": "Oct-24", "pillar": "Wallets", "product_type": "WaaS", "brand_id": "BRN-1", "merchant_name": "Acme", "tpv": "1,000", "tpt": "10"},
+              {"month": "Nov-24", "pillar": "Wallets", "product_type": "PayChat", "brand_id": "BRN-2", "merchant_name": "Beta", "tpv": "2,000", "tpt": "20"}
+            ]
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private final List<SmireDataService> services = new ArrayList<>();
+
+    @AfterEach
+    void stopServices() throws IOException {
+        for (SmireDataService service : services) {
+            service.stop();
+        }
+    }
+
+    private Path dataFile(String json) throws IOException {
+        Path file = tempDir.resolve("data.json");
+        Files.writeString(file, json);
+        return file;
+    }
+
+    private Path deltaDir() throws IOException {
+        return Files.createDirectories(tempDir.resolve("deltas"));
+    }
+
+    private SmireDataService service(Path data, boolean snapshot, int maxResident) {
+        SmireDataService service = new SmireDataService(new DefaultResourceLoader(), new ObjectMapper(), events::add,
+                "file:" + data, snapshot, tempDir.resolve("snapshot/data.snapshot").toString(), false, maxResident,
+                1, 500000, false, 100, tempDir.resolve("deltas").toString());
+        services.add(service);
+        return service;
+    }
+
+    private List<String> deltaFileNames() throws IOException {
+        try (Stream<Path> files = Files.list(deltaDir())) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @Test
+    void appendedBatchIsQueryableAndSurvivesRestart() throws IOException {
+        Path data = dataFile(BASE_ROWS);
+        SmireDataService service = service(data, false, 0);
+
+        SmireDataService.AppendResult result = service.appendRows("""
+                {"month": "2024-10", "pillar": "Wallets", "product_type": "WaaS", "merchant_name": "acme", "tpv": "500", "tpt": "5"}
+                {"month": "Dec-24", "pillar": "Lending", "product_type": "Paylater", "merchant_name": "Gamma", "tpv": "4,000", "tpt": "40"}
+                """.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(2, result.appendedRows());
+        assertEquals(Set.of("Oct-24", "Dec-24"), result.affectedMonths());
+        assertEquals(4, result.totalRows());
+        assertEquals(new Aggregate(150_000, 15, 2, 50_000, 100_000),
+                service.current().summarize("Oct-24", null, null, null, "ACME"));
+        assertEquals(List.of(SmireDataChangedEvent.appended(Set.of("Oct-24", "Dec-24"))), events);
+        assertEquals(1, deltaFileNames().size());
+
+        // Batch yang sudah disimpan sebagai file delta diterapkan ulang saat startup berikutnya
+        SmireDataService restarted = service(data, false, 0);
+        assertEquals(4, restarted.current().rowCount());
+        assertEquals(400_000, restarted.current().summarize("Dec-24", null, null, null, null).sumTpv());
+    }
+
+    @Test
+    void malformedBatchIsRejectedWithoutBeingPersisted() throws IOException {
+        SmireDataService service = service(dataFile(BASE_ROWS), false, 0);
+        SmirePartitionedStore before = service.current();
+
+        assertThrows(IOException.class, () -> service.appendRows(
+                "[{\"month\": \"Dec-24\", \"tpv\": \"1\", \"tpt\": \"1\"}, {\"month\":".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IOException.class, () -> service.appendRows("\"not rows\"".getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(service.current() == before, "dataset tidak boleh berganti");
+        assertEquals(List.of(), deltaFileNames());
+        assertEquals(List.of(), events);
+    }
+
+    @Test
+    void corruptDeltaFileIsQuarantinedAndBaseDataStillLoads() throws IOException {
+        Path data = dataFile(BASE_ROWS);
+        Path deltas = deltaDir();
+        Files.writeString(deltas.resolve("a-good.ndjson"), "{\"month\": \"Dec-24\", \"tpv\": \"3\", \"tpt\": \"1\"}\n");
+        Files.writeString(deltas.resolve("b-truncated.json"), "[{\"month\": \"Jan-25\", \"tpv\": \"5\", \"tpt\": \"1\"}, {\"month\":");
+
+        SmireDataService service = service(data, false, 0);
+
+        assertEquals(3, service.current().rowCount());
+        assertEquals(0, service.current().summarize("Jan-25", null, null, null, null).rowCount());
+        assertEquals(List.of("a-good.ndjson", "b-truncated.json.bad"), deltaFileNames());
+
+        // File yang dikarantina tidak ikut diterapkan lagi pada startup berikutnya
+        assertEquals(3, service(data, false, 0).current().rowCount());
+    }
+
+    @Test
+    void snapshotOfAnotherSourceWithTheSameTimestampIsNotReused() throws IOException {
+        Path first = dataFile(BASE_ROWS);
+        Path second = Files.writeString(tempDir.resolve("other.json"), BASE_ROWS.replace("\"1,000\"", "\"7,000\""));
+        Files.setLastModifiedTime(second, Files.getLastModifiedTime(first));
+
+        assertEquals(100_000, service(first, true, 0).current().summarize("Oct-24", null, null, null, null).sumTpv());
+        // Path snapshot yang sama, mtime sama, isi berbeda: snapshot lama tidak boleh dipakai
+        assertEquals(700_000, service(second, true, 0).current().summarize("Oct-24", null, null, null, null).sumTpv());
+    }
+
+    @Test
+    void defaultSnapshotPathDependsOnDataLocation() throws IOException {
+        DefaultResourceLoader loader = new DefaultResourceLoader();
+        Path first = dataFile(BASE_ROWS);
+        Path second = Files.writeString(Files.createDirectories(tempDir.resolve("other")).resolve("data.json"), BASE_ROWS);
+
+        Path firstSnapshot = SmireDataService.defaultSnapshotPath(loader.getResource("file:" + first));
+        assertTrue(firstSnapshot.getFileName().toString().startsWith("data-"), firstSnapshot.toString());
+        assertEquals(firstSnapshot, SmireDataService.defaultSnapshotPath(loader.getResource("file:" + first)));
+        assertNotEquals(firstSnapshot, SmireDataService.defaultSnapshotPath(loader.getResource("file:" + second)));
+    }
+
+    @Test
+    void reloadSwapsDatasetWhileConcurrentReadersKeepTheirStore() throws Exception {
+        Path data = dataFile(BASE_ROWS);
+        SmireDataService service = service(data, true, 1);
+        Aggregate before = service.current().summarize(null, null, null, null, null);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            results.add(readers.submit(() -> {
+                int reads = 0;
+                while (running.get()) {
+                    // Satu store per "request": hasilnya harus konsisten dengan salah satu versi dataset
+                    SmirePartitionedStore store = service.current();
+                    Aggregate oct = store.summarize("Oct-24", null, null, null, null);
+                    Aggregate nov = store.summarize("Nov-24", null, null, null, null);
+                    assertEquals(store.summarize(null, null, null, null, null), oct.plus(nov));
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+
+        for (int version = 1; version <= 3; version++) {
+            SmirePartitionedStore old = service.current();
+            Files.writeString(data, BASE_ROWS.replace("\"1,000\"", "\"" + (1000 + version) + "\""));
+            service.reload();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (service.current() == old && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertFalse(service.current() == old, "reload tidak selesai");
+            // Store lama tetap bisa dibaca, termasuk partisi yang sudah dilepas dari memori
+            assertEquals(before.rowCount(), old.summarize(null, null, null, null, null).rowCount());
+        }
+        running.set(false);
+        readers.shutdown();
+        for (Future<Integer> result : results) {
+            assertTrue(result.get(30, TimeUnit.SECONDS) > 0);
+        }
+        assertEquals(100_300, service.current().summarize("Oct-24", null, null, null, null).sumTpv());
+        assertTrue(events.contains(SmireDataChangedEvent.reloaded()));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.mcpserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ToolResultCacheTest {
+
+    private static final String BASE_ROWS = """
+            [
+              {"month": "Oct-24", "pillar": "Wallets", "product_type": "WaaS", "brand_id": "BRN-1", "merchant_name": "Acme", "tpv": "1,000", "tpt": "10"},
+              {"month": "Oct-24", "pillar": "Lending", "product_type": "Paylater", "brand_id": "BRN-2", "merchant_name": "Beta", "tpv": "2,000", "tpt": "20"},
+              {"month": "Nov-24", "pillar": "Wallets", "product_type": "WaaS", "brand_id": "BRN-1", "merchant_name": "Acme", "tpv": "1,500", "tpt": "15"},
+              {"month": "Nov-24", "pillar": "Lending", "product_type": "Paylater", "brand_id": "BRN-2", "merchant_name": "Beta", "tpv": "2,500", "tpt": "25"}
+            ]
+            """;
+
+    // Baris baru di Oct-24 yang mengubah hasil setiap tool yang mencakup bulan itu
+    private static final String OCTOBER_ROW = """
+            {"month": "2024-10", "pillar": "Wallets", "product_type": "WaaS", "brand_id": "BRN-1", "merchant_name": "Zeta", "tpv": "9,000", "tpt": "90"}
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private SmireDataService dataService;
+    private ToolResultCache cache;
+    private PaymentsAnalyticsToolService tools;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path data = tempDir.resolve("data.json");
+        Files.writeString(data, BASE_ROWS);
+        cache = new ToolResultCache(true, 1000, 600000);
+        dataService = new SmireDataService(new DefaultResourceLoader(), new ObjectMapper(),
+                event -> cache.onDataChanged((SmireDataChangedEvent) event), "file:" + data, false,
+                tempDir.resolve("data.snapshot").toString(), false, 0, 1, 500000, false, 100, "");
+        tools = new PaymentsAnalyticsToolService(dataService, cache, new ComputeLimiter(0, 30000));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        dataService.stop();
+    }
+
+    private Map<String, Supplier<Map<String, Object>>> toolsCoveringOctober() {
+        Map<String, Supplier<Map<String, Object>>> calls = new LinkedHashMap<>();
+        calls.put("get_summary_analytics", () -> tools.get_summary_analytics("Oct-24", null, null, null, null));
+        calls.put("get_monthly_growth", () -> tools.get_monthly_growth("Oct-24", "Nov-24", null, null, null, null));
+        calls.put("get_growth_series", () -> tools.get_growth_series("Oct-24", "Nov-24", null, null, null, null));
+        calls.put("get_product_mix", () -> tools.get_product_mix("Oct-24", null, null, null));
+        calls.put("get_data_by_pillar", () -> tools.get_data_by_pillar("Oct-24", null, null, null));
+        calls.put("get_data_by_product_type", () -> tools.get_data_by_product_type("Oct-24", null, null, null));
+        calls.put("get_grouped_metrics", () -> tools.get_grouped_metrics("merchant_name", "tpv,tpt,count", "Oct-24",
+                null, null, null, null, null));
+        // Oct-24 berada di tengah rentang: bulan di antara month_from dan month_to juga harus ikut terdaftar
+        calls.put("get_top_merchants", () -> tools.get_top_merchants("Sep-24", "Nov-24", "tpv", "top", 5,
+                null, null, null));
+        return calls;
+    }
+
+    private long hitCount() {
+        return (Long) cache.stats().get("Hit_Count");
+    }
+
+    @Test
+    void appendInvalidatesEveryToolThatCoversTheMonth() throws IOException {
+        Map<String, Supplier<Map<String, Object>>> calls = toolsCoveringOctober();
+        Map<String, Map<String, Object>> before = new LinkedHashMap<>();
+        calls.forEach((tool, call) -> before.put(tool, call.get()));
+        long hits = hitCount();
+        calls.forEach((tool, call) -> assertEquals(before.get(tool), call.get(), tool));
+        assertEquals(hits + calls.size(), hitCount());
+
+        dataService.appendRows(OCTOBER_ROW.getBytes(StandardCharsets.UTF_8));
+
+        calls.forEach((tool, call) -> assertNotEquals(before.get(tool), call.get(), tool + " masih mengembalikan hasil basi"));
+    }
+
+    @Test
+    void appendToAnotherMonthKeepsUnrelatedEntries() throws IOException {
+        Map<String, Object> november = tools.get_summary_analytics("Nov-24", null, null, null, null);
+        Map<String, Object> october = tools.get_summary_analytics("Oct-24", null, null, null, null);
+
+        dataService.appendRows(OCTOBER_ROW.getBytes(StandardCharsets.UTF_8));
+
+        long hits = hitCount();
+        assertEquals(november, tools.get_summary_analytics("Nov-24", null, null, null, null));
+        assertEquals(hits + 1, hitCount());
+        assertNotEquals(october, tools.get_summary_analytics("Oct-24", null, null, null, null));
+        assertEquals(hits + 1, hitCount());
+    }
+
+    @Test
+    void reloadClearsTheWholeCache() {
+        toolsCoveringOctober().values().forEach(Supplier::get);
+        tools.get_summary_analytics("Nov-24", null, null, null, null);
+
+        cache.onDataChanged(SmireDataChangedEvent.reloaded());
+
+        assertEquals(0L, cache.stats().get("Size"));
+        long hits = hitCount();
+        tools.get_summary_analytics("Nov-24", null, null, null, null);
+        assertEquals(hits, hitCount());
+    }
+}
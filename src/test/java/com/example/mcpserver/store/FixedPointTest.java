@@ -0,0 +1,38 @@
+package com.example.mcpserver.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FixedPointTest {
+
+    @Test
+    void parsesThousandsSeparatorsAndRoundsHalfUp() {
+        assertEquals(100_050, FixedPoint.parse("1,000.50", 2));
+        assertEquals(100_000, FixedPoint.parse(" 1,000 ", 2));
+        assertEquals(-1_235, FixedPoint.parse("-12.345", 2));
+        assertEquals(100, FixedPoint.parse("0.995", 2));
+        assertEquals(150_000, FixedPoint.parse("1.5e3", 2));
+    }
+
+    @Test
+    void largestValuesStillFit() {
+        assertEquals(9_223_372_036_854_775_807L, FixedPoint.parse("92,233,720,368,547,758.07", 2));
+        assertEquals(-9_223_372_036_854_775_807L, FixedPoint.parse("-92233720368547758.07", 2));
+    }
+
+    @Test
+    void rejectsValuesThatOverflowInsteadOfWrapping() {
+        for (String text : new String[] {"92233720368547758.08", "99999999999999999", "-99,999,999,999,999,999.99",
+                "123456789012345678901", "1e30"}) {
+            assertThrows(NumberFormatException.class, () -> FixedPoint.parse(text, 2), text);
+        }
+    }
+
+    @Test
+    void rejectsText() {
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("abc", 2));
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("", 2));
+    }
+}
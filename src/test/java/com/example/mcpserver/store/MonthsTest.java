@@ -0,0 +1,48 @@
+package com.example.mcpserver.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MonthsTest {
+
+    @Test
+    void acceptsEveryDocumentedFormat() {
+        for (String label : List.of("Oct-24", "oct-24", "OCT-24", "Oct-2024", "2024-10", "October 2024", "Oct 2024", " Oct-24 ")) {
+            assertEquals(YearMonth.of(2024, 10), Months.parse(label), label);
+            assertEquals(Months.key(YearMonth.of(2024, 10)), Months.keyOrNone(label), label);
+        }
+    }
+
+    @Test
+    void rejectsUnknownFormats() {
+        for (String label : List.of("10/2024", "2024/10", "Oct", "Okt-24", "24-Oct", "")) {
+            assertThrows(IllegalArgumentException.class, () -> Months.parse(label), label);
+            assertEquals(Months.NO_KEY, Months.keyOrNone(label), label);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Months.parse(null));
+    }
+
+    @Test
+    void canonicalLabelIsDataFormat() {
+        assertEquals("Oct-24", Months.canonical("2024-10"));
+        assertEquals("Oct-24", Months.canonical("October 2024"));
+        assertEquals("Jan-25", Months.canonical("jan-2025"));
+        // Label yang tidak bisa di-parse dikembalikan apa adanya
+        assertEquals("garbage", Months.canonical("garbage"));
+        assertNull(Months.canonical(null));
+    }
+
+    @Test
+    void keysSortChronologically() {
+        int december = Months.keyOrNone("Dec-24");
+        int january = Months.keyOrNone("Jan-25");
+        assertEquals(1, january - december);
+        assertEquals(YearMonth.of(2025, 1), Months.fromKey(january));
+    }
+}
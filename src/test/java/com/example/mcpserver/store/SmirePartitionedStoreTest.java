@@ -0,0 +1,179 @@
+package com.example.mcpserver.store;
+
+import com.example.mcpserver.store.SmireColumnStore.Dimension;
+import com.example.mcpserver.store.SmireColumnStore.Ranking;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmirePartitionedStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void appendedRowsAreQueryableAndBaseIsUnchanged() {
+        SmirePartitionedStore.Builder builder = SmirePartitionedStore.builder();
+        builder.addRow("Oct-24", "Wallets", "WaaS", "BRN-1", "Acme", 100, 1);
+        builder.addRow("Oct-24", "Wallets", "PayChat", "BRN-2", "Beta", 200, 2);
+        SmirePartitionedStore base = builder.build();
+
+        SmirePartitionedStore.Appender appender = base.appender();
+        appender.addRow("2024-10", "Wallets", "WaaS", "BRN-1", "acme", 50, 1);
+        appender.addRow("Nov-24", "Lending", "Paylater", "BRN-3", "Gamma", 400, 4);
+        SmirePartitionedStore appended = appender.build();
+
+        assertEquals(2, appender.size());
+        assertEquals(Set.of("Oct-24", "Nov-24"), appender.affectedMonths());
+        assertEquals(new Aggregate(350, 4, 3, 50, 200), appended.summarize("Oct-24", null, null, null, null));
+        assertEquals(new Aggregate(150, 2, 2, 50, 100), appended.summarize("Oct-24", null, null, null, "ACME"));
+        assertEquals(new Aggregate(400, 4, 1, 400, 400), appended.summarize("Nov-24", null, null, null, null));
+        assertEquals(List.of(YearMonth.of(2024, 10), YearMonth.of(2024, 11)), appended.months());
+
+        // Store lama tetap melihat data sebelum append
+        assertEquals(2, base.rowCount());
+        assertEquals(new Aggregate(300, 3, 2, 100, 200), base.summarize("Oct-24", null, null, null, null));
+    }
+
+    @Test
+    void monthFilterMatchesEveryLabelOfTheSameMonth() {
+        SmirePartitionedStore.Builder builder = SmirePartitionedStore.builder();
+        builder.addRow("Oct-24", "Wallets", "WaaS", "BRN-1", "Acme", 100, 1);
+        builder.addRow("2024-10", "Wallets", "WaaS", "BRN-1", "Acme", 200, 1);
+        builder.addRow("October 2024", "Wallets", "PayChat", "BRN-2", "Beta", 300, 1);
+        builder.addRow("not a month", "Wallets", "PayChat", "BRN-2", "Beta", 1000, 1);
+        SmirePartitionedStore store = builder.build();
+
+        for (String month : List.of("Oct-24", "2024-10", "Oct 2024")) {
+            assertEquals(3, store.summarize(month, null, null, null, null).rowCount(), month);
+            assertEquals(2, store.summarize(month, null, "WaaS", null, null).rowCount(), month);
+            assertEquals(2, store.summarize(month, null, null, null, "acme").rowCount(), month);
+        }
+        Map<String, Aggregate> byMonth = store.summarizeBy(Dimension.MONTH, null, null, null, null, null);
+        assertEquals(List.of("Oct-24", "not a month"), new ArrayList<>(byMonth.keySet()));
+        assertEquals(600, byMonth.get("Oct-24").sumTpv());
+    }
+
+    @Test
+    void rankMatchesFullSortAcrossPartitions() {
+        SmirePartitionedStore.Builder builder = SmirePartitionedStore.builder();
+        SplittableRandom random = new SplittableRandom(11);
+        for (int row = 0; row < 5_000; row++) {
+            // Nilai kecil agar banyak skor sama dan urutan berdasarkan nama merchant ikut teruji
+            builder.addRow(Months.format(YearMonth.of(2024, 10).plusMonths(random.nextInt(4))), "Pillar-" + random.nextInt(2),
+                    "Product-" + random.nextInt(3), "BRN-" + random.nextInt(30),
+                    random.nextInt(50) == 0 ? null : "Merchant-" + random.nextInt(300), random.nextLong(1, 20), random.nextLong(1, 5));
+        }
+        SmirePartitionedStore store = builder.build();
+        YearMonth from = YearMonth.of(2024, 10);
+        YearMonth to = YearMonth.of(2024, 12);
+
+        Map<String, Aggregate> totals = new HashMap<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            store.summarizeBy(Dimension.MERCHANT_NAME, Months.format(month), null, "Product-1", null, null)
+                    .forEach((key, aggregate) -> totals.merge(key, aggregate, Aggregate::plus));
+        }
+        Map<String, Aggregate> firsts = store.summarizeBy(Dimension.MERCHANT_NAME, Months.format(from), null, "Product-1", null, null);
+        Map<String, Aggregate> lasts = store.summarizeBy(Dimension.MERCHANT_NAME, Months.format(to), null, "Product-1", null, null);
+
+        for (Ranking ranking : Ranking.values()) {
+            Map<String, Double> scores = new HashMap<>();
+            totals.forEach((key, total) -> {
+                switch (ranking) {
+                    case TPV -> scores.put(key, (double) total.sumTpv());
+                    case TPT -> scores.put(key, (double) total.sumTpt());
+                    case GROWTH -> {
+                        long base = firsts.getOrDefault(key, Aggregate.ZERO).sumTpv();
+                        if (base > 0) {
+                            scores.put(key, (lasts.getOrDefault(key, Aggregate.ZERO).sumTpv() - base) * 100.0 / base);
+                        }
+                    }
+                }
+            });
+            for (boolean ascending : new boolean[] {false, true}) {
+                Comparator<String> order = Comparator.comparingDouble(scores::get);
+                List<String> expected = new ArrayList<>(scores.keySet());
+                expected.sort((ascending ? order : order.reversed()).thenComparing(Comparator.naturalOrder()));
+
+                List<RankedGroup> ranked = store.rank(Dimension.MERCHANT_NAME, from, to, null, "Product-1", ranking, 25, ascending);
+                assertEquals(expected.subList(0, 25), ranked.stream().map(RankedGroup::key).toList(), ranking + " " + ascending);
+                for (RankedGroup group : ranked) {
+                    assertEquals(totals.get(group.key()), group.total());
+                    assertEquals(scores.get(group.key()).doubleValue(), group.score());
+                    if (ranking == Ranking.GROWTH) {
+                        assertEquals(firsts.getOrDefault(group.key(), Aggregate.ZERO), group.first());
+                        assertEquals(lasts.getOrDefault(group.key(), Aggregate.ZERO), group.last());
+                    }
+                }
+            }
+        }
+        assertEquals(List.of(), store.rank(Dimension.MERCHANT_NAME, from, to, null, "Product-1", Ranking.TPV, 0, false));
+        assertEquals(List.of(), store.rank(Dimension.MERCHANT_NAME, from, to, null, "Missing", Ranking.TPV, 5, false));
+    }
+
+    @Test
+    void evictionKeepsResultsCorrectUnderConcurrentReads() throws Exception {
+        SmirePartitionedStore.Builder builder = SmirePartitionedStore.builder();
+        SplittableRandom random = new SplittableRandom(7);
+        List<String> months = new ArrayList<>();
+        for (int m = 0; m < 12; m++) {
+            months.add(Months.format(YearMonth.of(2024, 1).plusMonths(m)));
+        }
+        for (int row = 0; row < 12_000; row++) {
+            builder.addRow(months.get(row % months.size()), "Pillar-" + random.nextInt(3), "Product-" + random.nextInt(4),
+                    "BRN-" + random.nextInt(20), "Merchant-" + random.nextInt(200), random.nextLong(1_000_000), random.nextLong(10));
+        }
+        SmirePartitionedStore resident = builder.build();
+        Map<String, Aggregate> expected = new HashMap<>();
+        for (String month : months) {
+            expected.put(month, resident.summarize(month, null, null, null, "Merchant-7"));
+        }
+        Aggregate total = resident.summarize(null, null, null, null, null);
+
+        Path snapshot = tempDir.resolve("data.snapshot");
+        SmireSnapshot.writeDataset(resident, snapshot, 42L);
+        SmirePartitionedStore lazy = SmireSnapshot.openDataset(snapshot, 42L, false, 2);
+        assertEquals(0, lazy.residentPartitionCount());
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                readers.add(pool.submit(() -> {
+                    SplittableRandom picks = new SplittableRandom(seed);
+                    for (int i = 0; i < 500; i++) {
+                        String month = months.get(picks.nextInt(months.size()));
+                        assertEquals(expected.get(month), lazy.summarize(month, null, null, null, "Merchant-7"), month);
+                        if (i % 50 == 0) {
+                            assertEquals(total, lazy.summarize(null, null, null, null, null));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> reader : readers) {
+                reader.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(lazy.residentPartitionCount() <= 2, "resident " + lazy.residentPartitionCount());
+    }
+}
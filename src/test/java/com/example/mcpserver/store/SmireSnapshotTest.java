@@ -0,0 +1,175 @@
+package com.example.mcpserver.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmireSnapshotTest {
+
+    private static final long SOURCE_FINGERPRINT = 0x5EED_F00D_CAFE_BEEFL;
+
+    @TempDir
+    Path tempDir;
+
+    private static SmirePartitionedStore dataset(long tpv) {
+        SmirePartitionedStore.Builder builder = SmirePartitionedStore.builder();
+        builder.addRow("Oct-24", "Wallets", "WaaS", "BRN-1", "Acme", tpv, 1);
+        builder.addRow("Nov-24", "Wallets", "PayChat", "BRN-2", "Beta", tpv * 2, 2);
+        builder.addRow("Dec-24", "Lending", "Paylater", "BRN-3", "Gamma", tpv * 4, 3);
+        builder.addRow(null, "Lending", "Paylater", "BRN-3", "Gamma", tpv * 8, 4);
+        return builder.build();
+    }
+
+    private List<Path> partitionFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith("data.snapshot.g") && !name.endsWith(".lease"))
+                    .sorted().map(tempDir::resolve).toList();
+        }
+    }
+
+    @Test
+    void roundTripsEveryPartition() throws IOException {
+        SmirePartitionedStore original = dataset(100);
+        Path snapshot = tempDir.resolve("data.snapshot");
+        SmireSnapshot.writeDataset(original, snapshot, SOURCE_FINGERPRINT);
+
+        SmirePartitionedStore opened = SmireSnapshot.openDataset(snapshot, SOURCE_FINGERPRINT, false, 0);
+        assertEquals(original.partitionCount(), opened.partitionCount());
+        assertEquals(original.summarize(null, null, null, null, null), opened.summarize(null, null, null, null, null));
+        assertEquals(original.summarize("Nov-24", null, null, null, "beta"), opened.summarize("Nov-24", null, null, null, "beta"));
+    }
+
+    @Test
+    void rejectsStaleSnapshot() throws IOException {
+        Path snapshot = tempDir.resolve("data.snapshot");
+        SmireSnapshot.writeDataset(dataset(100), snapshot, SOURCE_FINGERPRINT);
+
+        assertThrows(IOException.class, () -> SmireSnapshot.openDataset(snapshot, SOURCE_FINGERPRINT + 1, false, 0));
+    }
+
+    @Test
+    void fingerprintDependsOnContent() throws IOException {
+        byte[] data = "[{\"month\": \"Oct-24\", \"tpv\": \"1\"}]".getBytes(StandardCharsets.UTF_8);
+        byte[] other = "[{\"month\": \"Oct-24\", \"tpv\": \"2\"}]".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(SmireSnapshot.fingerprint(new ByteArrayInputStream(data)), SmireSnapshot.fingerprint(new ByteArrayInputStream(data.clone())));
+        assertNotEquals(SmireSnapshot.fingerprint(new ByteArrayInputStream(data)), SmireSnapshot.fingerprint(new ByteArrayInputStream(other)));
+    }
+
+    @Test
+    void rejectsCorruptManifest() throws IOException {
+        Path snapshot = tempDir.resolve("data.snapshot");
+        SmireSnapshot.writeDataset(dataset(100), snapshot, SOURCE_FINGERPRINT);
+        flipLastByte(snapshot);
+
+        IOException error = assertThrows(IOException.class, () -> SmireSnapshot.openDataset(snapshot, SOURCE_FINGERPRINT, false, 0));
+        assertTrue(error.getMessage().contains("Checksum"), error.getMessage());
+    }
+
+    @Test
+    void rejectsCorruptPartitionFileWhenItIsLoaded() throws IOException {
+        Path snapshot = tempDir.resolve("data.snapshot");
+        SmireSnapshot.writeDataset(dataset(100), snapshot, SOURCE_FINGERPRINT);
+        for (Path file : partitionFiles()) {
+            flipLastByte(file);
+        }
+
+        // Partisi dimuat lazy: manifest masih valid, kerusakan terdeteksi saat partisi pertama kali dibaca
+        SmirePartitionedStore opened = SmireSnapshot.openDataset(snapshot, SOURCE_FINGERPRINT, false, 0);
+        UncheckedIOException error = assertThrows(UncheckedIOException.class,
+                () -> opened.summarize("Oct-24", null, null, null, null));
+        assertInstanceOf(IOException.class, error.getCause());
+        assertThrows(IOException.class, () -> SmireSnapshot.read(partitionFiles().get(0), SOURCE_FINGERPRINT));
+    }
+
+    @Test
+    void rejectsMissingPartitionFile() throws IOException {
+        Path snapshot = tempDir.resolve("data.snapshot");
+        SmireSnapshot.writeDataset(dataset(100), snapshot, SOURCE_FINGERPRINT);
+        Files.delete(partitionFiles().get(0));
+
+        assertThrows(IOException.class, () -> SmireSnapshot.openDataset(snapshot, SOURCE_FINGERPRINT, false, 0));
+    }
+
+    @Test
+    void rewriteKeepsFilesOfDatasetStillInUse() throws IOException {
+        Path snapshot = tempDir.resolve("data.snapshot");
+        SmireSnapshot.writeDataset(dataset(100), snapshot, SOURCE_FINGERPRINT);
+        SmirePartitionedStore old = SmireSnapshot.openDataset(snapshot, SOURCE_FINGERPRINT, false, 1);
+        List<Path> oldFiles = partitionFiles();
+        assertEquals(100, old.summarize("Oct-24", null, null, null, null).sumTpv());
+
+        SmireSnapshot.writeDataset(dataset(1000), snapshot, SOURCE_FINGERPRINT + 1);
+
+        // Generasi baru tidak menimpa file yang masih bisa dimuat ulang oleh store lama
+        for (Path file : oldFiles) {
+            assertTrue(Files.exists(file), file.toString());
+        }
+        assertEquals(1500, old.summarize(null, null, null, null, null).sumTpv());
+        assertEquals(100, old.summarize("Oct-24", null, null, null, null).sumTpv());
+        SmirePartitionedStore current = SmireSnapshot.openDataset(snapshot, SOURCE_FINGERPRINT + 1, false, 1);
+        assertEquals(15000, current.summarize(null, null, null, null, null).sumTpv());
+        assertFalse(partitionFiles().isEmpty());
+    }
+
+    @Test
+    void rewriteKeepsGenerationLeasedByAnotherProcess() throws IOException {
+        Path snapshot = tempDir.resolve("data.snapshot");
+        SmireSnapshot.writeDataset(dataset(100), snapshot, SOURCE_FINGERPRINT);
+        List<Path> oldFiles = partitionFiles();
+        String oldName = oldFiles.get(0).getFileName().toString();
+        Path lease = tempDir.resolve(oldName.substring(0, oldName.lastIndexOf('.') + 1) + "lease");
+
+        // Shared lock dari channel lain berperan sebagai proses lain yang masih membaca generasi lama
+        try (FileChannel reader = FileChannel.open(lease, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            reader.lock(0, Long.MAX_VALUE, true);
+            SmireSnapshot.writeDataset(dataset(1000), snapshot, SOURCE_FINGERPRINT + 1);
+            for (Path file : oldFiles) {
+                assertTrue(Files.exists(file), file.toString());
+            }
+        }
+
+        SmireSnapshot.writeDataset(dataset(10000), snapshot, SOURCE_FINGERPRINT + 2);
+        for (Path file : oldFiles) {
+            assertFalse(Files.exists(file), file.toString());
+        }
+        assertFalse(Files.exists(lease));
+    }
+
+    @Test
+    void rewriteDeletesOnlyLegacyFilesThatNamePartitions() throws IOException {
+        Path snapshot = tempDir.resolve("data.snapshot");
+        Path legacy = Files.writeString(tempDir.resolve("data.snapshot.p202410"), "lama");
+        Path unrelated = Files.writeString(tempDir.resolve("data.snapshot.pbackup"), "bukan partisi");
+
+        SmireSnapshot.writeDataset(dataset(100), snapshot, SOURCE_FINGERPRINT);
+
+        assertFalse(Files.exists(legacy));
+        assertTrue(Files.exists(unrelated));
+    }
+
+    private static void flipLastByte(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(file, bytes);
+    }
+}